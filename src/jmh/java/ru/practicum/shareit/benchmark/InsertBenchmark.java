@@ -0,0 +1,101 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second written by bulk item and booking creation. {@code allocationSize=1} and {@code jdbcBatchSize=1}
+ * reproduce the old IDENTITY behaviour of one round trip per row; compare with the pooled and batched settings
+ * through {@code mvn -P benchmark test-compile exec:exec -Djmh.args="InsertBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+
+    private static final int ENTRIES = 100;
+
+    @Param({"1", "50"})
+    public int allocationSize;
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ItemRepository itemRepository;
+    private BookingService bookingService;
+    private User owner;
+    private User booker;
+    private List<Item> bookedItems;
+    private LocalDateTime nextStart;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:inserts;DB_CLOSE_DELAY=-1",
+                        "--shareit.id.allocation-size=" + allocationSize,
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingService = context.getBean(BookingService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker@mail.ru"));
+        bookedItems = itemRepository.saveAll(newItems());
+        nextStart = LocalDateTime.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public List<Item> createItems() {
+        List<Item> items = newItems();
+        return transactionTemplate.execute(status -> itemRepository.saveAll(items));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public List<BookingBatchResult> createBookings() {
+        List<BookingRequest> requests = new ArrayList<>(ENTRIES);
+        for (Item item : bookedItems) {
+            requests.add(new BookingRequest(null, item.getId(), nextStart, nextStart.plusMinutes(30), null));
+        }
+        nextStart = nextStart.plusHours(1);
+        return bookingService.createAll(requests, booker.getId());
+    }
+
+    private List<Item> newItems() {
+        List<Item> items = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            items.add(new Item(null, "item" + i, "description of item " + i, true, owner, null));
+        }
+        return items;
+    }
+}
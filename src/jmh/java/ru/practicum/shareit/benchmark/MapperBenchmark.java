@@ -0,0 +1,73 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingViewDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemViewDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the mappers on in-memory objects, without a database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "1000"})
+    public int bookingsPerItem;
+
+    private Item item;
+    private List<Booking> bookings;
+    private List<BookingViewDto> bookingViews;
+    private List<CommentDto> comments;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        User booker = new User(2L, "booker", "booker@mail.ru");
+        item = new Item(1L, "item", "description", true, owner, null);
+        LocalDateTime base = LocalDateTime.now().minusHours(bookingsPerItem / 2);
+        bookings = new ArrayList<>();
+        bookingViews = new ArrayList<>();
+        comments = new ArrayList<>();
+        for (int i = 0; i < bookingsPerItem; i++) {
+            Booking booking = new Booking((long) i, base.plusHours(i), base.plusHours(i + 1), item, booker,
+                    BookingStatus.APPROVED);
+            bookings.add(booking);
+            bookingViews.add(BookingMapper.toBookingViewDto(booking));
+            comments.add(new CommentDto((long) i, "comment " + i, item.getId(), booker.getId(), booker.getName(),
+                    base.plusHours(i)));
+        }
+    }
+
+    @Benchmark
+    public ItemViewDto toItemViewForOwnerDto() {
+        return ItemMapper.toItemViewForOwnerDto(item, bookingViews, comments, comments.size());
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public List<BookingResponse> mapToBookingDto() {
+        return BookingMapper.mapToBookingDto(bookings);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load test of GET /bookings/owner against the seeded application on a random port. Keeps
+ * {@code concurrency} requests in flight until {@code requests} have completed, discards the first fifth as
+ * warm-up and prints latency percentiles and throughput.
+ * Arguments: {@code [platform|virtual] [concurrency] [requests]}, defaults {@code platform 5000 100000}.
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.main=<this class> -Djmh.args="virtual"}.
+ */
+public class OwnerBookingsLoadTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        String threads = args.length > 0 ? args[0] : "platform";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+
+        SeededApplication application = new SeededApplication();
+        application.users = 1000;
+        application.items = 10000;
+        application.bookings = 100000;
+        application.comments = 0;
+        application.start(WebApplicationType.SERVLET, "--server.port=0", "--shareit.server.threads=" + threads,
+                "--server.tomcat.max-connections=" + (concurrency + 100));
+        String port = application.context.getEnvironment().getProperty("local.server.port");
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/bookings/owner?state=ALL&size=20"))
+                    .header("X-Sharer-User-Id", String.valueOf(application.ownerId))
+                    .timeout(Duration.ofMinutes(1))
+                    .build();
+            run(client, request, threads, concurrency, requests);
+        } finally {
+            clientExecutor.shutdownNow();
+            application.stop();
+        }
+    }
+
+    private static void run(HttpClient client, HttpRequest request, String threads, int concurrency, int requests)
+            throws InterruptedException {
+        int warmup = requests / 5;
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch completed = new CountDownLatch(requests);
+        long measureStart = 0;
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            if (i == warmup) {
+                measureStart = System.nanoTime();
+            }
+            int index = i;
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, e) -> {
+                latencies[index] = System.nanoTime() - start;
+                if (e != null || response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+                inFlight.release();
+                completed.countDown();
+            });
+        }
+        completed.await();
+        long elapsed = System.nanoTime() - measureStart;
+
+        long[] measured = Arrays.copyOfRange(latencies, warmup, requests);
+        Arrays.sort(measured);
+        System.out.printf("threads=%s concurrency=%d requests=%d errors=%d throughput=%.0f req/s%n",
+                threads, concurrency, measured.length, errors.get(), measured.length * 1e9 / elapsed);
+        System.out.printf("p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                percentile(measured, 0.50), percentile(measured, 0.99), measured[measured.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.benchmark;
+
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.ItemService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application context on an in-memory H2 database seeded with the configured volumes. The data is inserted
+ * by a Flyway callback right after the migrations, before the singletons are initialized, so the in-process
+ * search and availability indexes are built from it.
+ * Item i is owned by user (i % users) + 1 and booked by the next user, so user 1 is an owner
+ * and user 2 a booker with data spread evenly over the whole range. Ids are inserted explicitly and the id
+ * sequences restarted after them, so the entities created during a benchmark continue the range.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    @Param("1000")
+    public int users;
+    @Param("10000")
+    public int items;
+    @Param("100000")
+    public int bookings;
+    @Param("50000")
+    public int comments;
+
+    final long ownerId = 1;
+    final long bookerId = 2;
+    ConfigurableApplicationContext context;
+    ItemService itemService;
+    BookingService bookingService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        start(WebApplicationType.NONE);
+    }
+
+    /**
+     * Starts the seeded application. Extra arguments are passed on as command line properties, after the
+     * defaults, so they can override them.
+     */
+    public void start(WebApplicationType webApplicationType, String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+        arguments.addAll(List.of(args));
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(webApplicationType)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .registerSingleton("seedingCallback", new SeedingCallback()))
+                .run(arguments.toArray(String[]::new));
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        LocalDateTime base = LocalDateTime.now().minusHours(bookings / 2);
+        insert(jdbcTemplate, "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users,
+                i -> new Object[]{i + 1, "user" + i, "user" + i + "@mail.ru"});
+        insert(jdbcTemplate, "INSERT INTO items (id, name, description, is_available, user_id) VALUES (?, ?, ?, ?, ?)",
+                items, i -> new Object[]{i + 1, "item" + i, "description of item " + i, i % 10 != 0, i % users + 1});
+        insert(jdbcTemplate, "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", bookings,
+                i -> new Object[]{i + 1, Timestamp.valueOf(base.plusHours(i)), Timestamp.valueOf(base.plusHours(i + 1)),
+                        i % items + 1, bookerOf(i % items), STATUSES[i % STATUSES.length].name()});
+        insert(jdbcTemplate, "INSERT INTO comments (id, text, author_id, item_id, created_date) VALUES (?, ?, ?, ?, ?)",
+                comments, i -> new Object[]{i + 1, "comment " + i, bookerOf(i % items), i % items + 1,
+                        Timestamp.valueOf(base.plusHours(i))});
+        restartSequence(jdbcTemplate, "users_seq", users);
+        restartSequence(jdbcTemplate, "items_seq", items);
+        restartSequence(jdbcTemplate, "bookings_seq", bookings);
+        restartSequence(jdbcTemplate, "comments_seq", comments);
+    }
+
+    private long bookerOf(int item) {
+        return (item + 1) % users + 1;
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String sql, int count, RowFactory rowFactory) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            rows.add(rowFactory.row(i));
+            if (rows.size() == BATCH_SIZE || i == count - 1) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+
+    private static void restartSequence(JdbcTemplate jdbcTemplate, String sequence, int lastId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (lastId + 1));
+    }
+
+    /**
+     * Seeds the database on the migration connection once the schema is in place. Spring Boot passes every
+     * {@link Callback} bean on to Flyway.
+     */
+    private class SeedingCallback implements Callback {
+
+        @Override
+        public boolean supports(Event event, Context context) {
+            return event == Event.AFTER_MIGRATE;
+        }
+
+        @Override
+        public boolean canHandleInTransaction(Event event, Context context) {
+            return true;
+        }
+
+        @Override
+        public void handle(Event event, Context context) {
+            seed(new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true)));
+        }
+
+        @Override
+        public String getCallbackName() {
+            return "seed";
+        }
+    }
+
+    private interface RowFactory {
+        Object[] row(int i);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemViewDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the service read paths against the seeded database. Run with
+ * {@code mvn -P benchmark test-compile exec:exec}, volumes are set through
+ * {@code -Djmh.args="-p users=100 -p bookings=1000000 -prof gc"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Benchmark
+    public List<ItemViewDto> getAllItemsByOwner(SeededApplication app) {
+        return app.itemService.getAllItemsByOwner(app.ownerId, 0, 20);
+    }
+
+    @Benchmark
+    public ItemViewDto findItemByIdAsOwner(SeededApplication app) {
+        return app.itemService.findItemById(app.ownerId, app.ownerId);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemByText(SeededApplication app) {
+        return app.itemService.searchItemByText("item 1", 0, 20);
+    }
+
+    @Benchmark
+    public Slice<BookingResponse> findBookingsOfOwner(SeededApplication app) {
+        return app.bookingService.findBookingsOfOwner(BookingState.ALL, app.ownerId, 0, 20);
+    }
+
+    @Benchmark
+    public Slice<BookingResponse> findPastBookingsOfOwner(SeededApplication app) {
+        return app.bookingService.findBookingsOfOwner(BookingState.PAST, app.ownerId, 0, 20);
+    }
+
+    @Benchmark
+    public Slice<BookingResponse> findBookingsOfUser(SeededApplication app) {
+        return app.bookingService.findBookingsOfUser(BookingState.ALL, app.bookerId, 0, 20);
+    }
+}
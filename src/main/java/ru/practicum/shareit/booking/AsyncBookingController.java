@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.server.ReadQueryExecutor;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Booking listings of {@link BookingController} served asynchronously: the request thread is released
+ * while the query runs on the {@link ReadQueryExecutor}. The next-page link is built from the request
+ * before it is handed over, since the query thread has no access to it.
+ */
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/async/bookings")
+@Slf4j
+public class AsyncBookingController {
+
+    private final BookingService bookingService;
+    private final ReadQueryExecutor readQueryExecutor;
+
+    @GetMapping
+    public CompletableFuture<ResponseEntity<List<BookingResponse>>> findBookingsOutDtoOfUserResponse(
+            @RequestParam(defaultValue = "ALL", required = false) String state,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        BookingState bookingState = BookingState.valueOf(state);
+        BookingCursor bookingCursor = cursor == null ? null : BookingCursor.decode(cursor);
+        UriComponentsBuilder currentRequest = ServletUriComponentsBuilder.fromCurrentRequest();
+        log.info("пришел GET запрос /async/bookings?state с userId: {}, state: {}, from: {}, size: {}, cursor: {}",
+                userId, state, from, size, cursor);
+        return readQueryExecutor.supply(() -> {
+            Slice<BookingResponse> bookingResponse = bookingCursor == null
+                    ? bookingService.findBookingsOfUser(bookingState, userId, from, size)
+                    : bookingService.findBookingsOfUser(bookingState, userId, bookingCursor, size);
+            log.info("отправлен ответ на GET запрос /async/bookings?state с userId: {}, state: {} с телом: {}",
+                    userId, state, bookingResponse.getContent());
+            return BookingController.withNextPage(bookingResponse, currentRequest);
+        });
+    }
+
+    @GetMapping("/owner")
+    public CompletableFuture<ResponseEntity<List<BookingResponse>>> findBookingsOutDtoOfOwnerResponse(
+            @RequestParam(defaultValue = "ALL", required = false) String state,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        BookingState bookingState = BookingState.valueOf(state);
+        BookingCursor bookingCursor = cursor == null ? null : BookingCursor.decode(cursor);
+        UriComponentsBuilder currentRequest = ServletUriComponentsBuilder.fromCurrentRequest();
+        log.info("пришел GET запрос /async/bookings/owner?state с userId: {} и state: {}, cursor: {}",
+                userId, state, cursor);
+        return readQueryExecutor.supply(() -> {
+            Slice<BookingResponse> bookingResponse = bookingCursor == null
+                    ? bookingService.findBookingsOfOwner(bookingState, userId, from, size)
+                    : bookingService.findBookingsOfOwner(bookingState, userId, bookingCursor, size);
+            log.info("отправлен ответ на GET запрос /async/bookings/owner?state с userId: {} и state: {} с телом: {}",
+                    userId, state, bookingResponse.getContent());
+            return BookingController.withNextPage(bookingResponse, currentRequest);
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process index of WAITING and APPROVED bookings per item, used to reject overlapping bookings
+ * without scanning the bookings table. It is loaded once all singletons exist, before the web server
+ * starts accepting requests. Bookings that have ended are pruned from an item's tree whenever a booking
+ * is added to it, so a tree holds the item's current and future bookings rather than every booking since startup.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex implements SmartInitializingSingleton {
+
+    private static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository repository;
+    private final Map<Long, BookingIntervalTree> trees = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Adds every blocking booking of the database to the index. Intervals already in the index are kept,
+     * so a booking registered by a transaction that is still running when the snapshot is read is never lost.
+     */
+    public void rebuild() {
+        List<Booking> bookings = repository.findAllByStatusInAndEndAfter(BLOCKING_STATUSES, LocalDateTime.now());
+        for (Booking booking : bookings) {
+            add(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+        }
+        log.info("booking availability index was rebuilt with {} bookings", bookings.size());
+    }
+
+    public boolean overlaps(Long itemId, LocalDateTime from, LocalDateTime to) {
+        BookingIntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return false;
+        }
+        synchronized (tree) {
+            return tree.overlaps(from, to);
+        }
+    }
+
+    /**
+     * Atomically checks the interval against the item's bookings and registers it when it is free.
+     * If called inside a transaction, the registration is undone on rollback.
+     */
+    public boolean tryAdd(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree tree = trees.computeIfAbsent(itemId, id -> new BookingIntervalTree());
+        synchronized (tree) {
+            tree.removeEndedBy(LocalDateTime.now());
+            if (tree.overlaps(start, end)) {
+                return false;
+            }
+            tree.insert(bookingId, start, end);
+        }
+        removeOnRollback(itemId, bookingId);
+        return true;
+    }
+
+    public void add(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree tree = trees.computeIfAbsent(itemId, id -> new BookingIntervalTree());
+        synchronized (tree) {
+            tree.removeEndedBy(LocalDateTime.now());
+            tree.insert(bookingId, start, end);
+        }
+    }
+
+    /**
+     * Releases the interval of the booking. If called inside a transaction, the release happens after commit.
+     */
+    public void remove(Long itemId, Long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            doRemove(itemId, bookingId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                doRemove(itemId, bookingId);
+            }
+        });
+    }
+
+    private void doRemove(Long itemId, Long bookingId) {
+        BookingIntervalTree tree = trees.get(itemId);
+        if (tree != null) {
+            synchronized (tree) {
+                tree.remove(bookingId);
+            }
+        }
+    }
+
+    private void removeOnRollback(Long itemId, Long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    doRemove(itemId, bookingId);
+                }
+            }
+        });
+    }
+}
@@ -2,15 +2,26 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 
@@ -21,6 +32,9 @@ import java.util.List;
 @Slf4j
 public class BookingController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_BATCH_SIZE = 500;
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -32,6 +46,17 @@ public class BookingController {
         return bookingResponse;
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResult> createBookingsBatchResponse(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                                List<@Valid BookingRequest> bookingRequests,
+                                                                @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("пришел POST запрос /bookings/batch с userId: {} и количеством бронирований: {}", userId,
+                bookingRequests.size());
+        List<BookingBatchResult> results = bookingService.createAll(bookingRequests, userId);
+        log.info("отправлен ответ на POST запрос /bookings/batch с userId: {} с телом: {}", userId, results);
+        return results;
+    }
+
     @PatchMapping(value = "/{bookingId}")
     public BookingResponse setBookingOutDtoApprovalResponse(@RequestHeader("X-Sharer-User-Id") Long userId,
                                          @RequestParam @NotNull Boolean approved,
@@ -50,26 +75,73 @@ public class BookingController {
         return bookingResponse;
     }
 
+    @GetMapping("/{bookingId}/events")
+    public List<BookingEventDto> findBookingEventsResponse(@PathVariable Long bookingId,
+                                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("пришел GET запрос /bookings/{bookingId}/events с userId: {} и bookingId: {}", userId, bookingId);
+        List<BookingEventDto> events = bookingService.findBookingEvents(bookingId, userId);
+        log.info("отправлен ответ на GET запрос /bookings/{bookingId}/events с userId: {} и bookingId: {} с телом: {}",
+                userId, bookingId, events);
+        return events;
+    }
+
     @GetMapping
-    public List<BookingResponse> findBookingsOutDtoOfUserResponse(@RequestParam(defaultValue = "ALL", required = false) String state,
+    public ResponseEntity<List<BookingResponse>> findBookingsOutDtoOfUserResponse(@RequestParam(defaultValue = "ALL", required = false) String state,
                                                @RequestHeader("X-Sharer-User-Id") Long userId,
                                                                   @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                                  @Positive @RequestParam(defaultValue = "10") int size) {
+                                                                  @Positive @RequestParam(defaultValue = "10") int size,
+                                                                  @RequestParam(required = false) String cursor) {
         BookingState bookingState = BookingState.valueOf(state);
-        log.info("пришел GET запрос /bookings?state с userId: {}, state: {}, from: {}, size: {}", userId, state, from, size);
-        List<BookingResponse> bookingResponse = bookingService.findBookingsOfUser(bookingState, userId, from, size);
-        log.info("отправлен ответ на GET запрос /bookings?state с userId: {}, state: {}, from: {}, size: {}  с телом: {}", userId, state, from, size, bookingResponse);
-        return bookingResponse;
+        log.info("пришел GET запрос /bookings?state с userId: {}, state: {}, from: {}, size: {}, cursor: {}", userId, state, from, size, cursor);
+        Slice<BookingResponse> bookingResponse = cursor == null
+                ? bookingService.findBookingsOfUser(bookingState, userId, from, size)
+                : bookingService.findBookingsOfUser(bookingState, userId, BookingCursor.decode(cursor), size);
+        log.info("отправлен ответ на GET запрос /bookings?state с userId: {}, state: {}, from: {}, size: {}  с телом: {}", userId, state, from, size, bookingResponse.getContent());
+        return withNextPage(bookingResponse, ServletUriComponentsBuilder.fromCurrentRequest());
     }
 
     @GetMapping("/owner")
-    public List<BookingResponse> findBookingsOutDtoOfOwnerResponse(@RequestParam(defaultValue = "ALL", required = false) String state,
+    public ResponseEntity<List<BookingResponse>> findBookingsOutDtoOfOwnerResponse(@RequestParam(defaultValue = "ALL", required = false) String state,
                                                    @RequestHeader("X-Sharer-User-Id") Long userId, @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                                   @Positive @RequestParam(defaultValue = "10") int size) {
-        log.info("пришел GET запрос /bookings/owner?state с userId: {} и state: {}", userId, state);
+                                                                   @Positive @RequestParam(defaultValue = "10") int size,
+                                                                   @RequestParam(required = false) String cursor) {
+        log.info("пришел GET запрос /bookings/owner?state с userId: {} и state: {}, cursor: {}", userId, state, cursor);
         BookingState bookingState = BookingState.valueOf(state);
-        List<BookingResponse> bookingResponse = bookingService.findBookingsOfOwner(bookingState, userId, from, size);
-        log.info("отправлен ответ на GET запрос /bookings/owner?state с userId: {} и state: {} с телом: {}", userId, state, bookingResponse);
-        return bookingResponse;
+        Slice<BookingResponse> bookingResponse = cursor == null
+                ? bookingService.findBookingsOfOwner(bookingState, userId, from, size)
+                : bookingService.findBookingsOfOwner(bookingState, userId, BookingCursor.decode(cursor), size);
+        log.info("отправлен ответ на GET запрос /bookings/owner?state с userId: {} и state: {} с телом: {}", userId, state, bookingResponse.getContent());
+        return withNextPage(bookingResponse, ServletUriComponentsBuilder.fromCurrentRequest());
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto findOwnerSummaryResponse(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @Positive @RequestParam(defaultValue = "30") int days) {
+        log.info("пришел GET запрос /bookings/owner/summary с userId: {} и days: {}", userId, days);
+        BookingSummaryDto summary = bookingService.findOwnerSummary(userId, days);
+        log.info("отправлен ответ на GET запрос /bookings/owner/summary с userId: {} и days: {} с телом: {}",
+                userId, days, summary);
+        return summary;
+    }
+
+    /**
+     * Returns the page content and, when the slice reports more bookings, a cursor for the next page both in
+     * {@value #NEXT_CURSOR_HEADER} and as a {@code rel="next"} Link to the same request continued from it.
+     */
+    static ResponseEntity<List<BookingResponse>> withNextPage(Slice<BookingResponse> bookings,
+                                                              UriComponentsBuilder currentRequest) {
+        if (!bookings.hasNext()) {
+            return ResponseEntity.ok(bookings.getContent());
+        }
+        List<BookingResponse> content = bookings.getContent();
+        String nextCursor = BookingCursor.of(content.get(content.size() - 1)).encode();
+        String nextLink = currentRequest
+                .replaceQueryParam("from")
+                .replaceQueryParam("cursor", nextCursor)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, nextCursor)
+                .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"")
+                .body(content);
     }
 }
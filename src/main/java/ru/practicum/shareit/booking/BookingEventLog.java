@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind log of booking state transitions. Events are queued after the booking transaction commits
+ * and written in batches by a background thread, so the booking request never waits for the insert.
+ * When the queue is full new events are dropped and counted rather than blocking the caller.
+ */
+@Component
+@Slf4j
+public class BookingEventLog {
+
+    private static final String INSERT = "INSERT INTO booking_events (booking_id, type, actor_id, created_date) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final String SELECT_BY_BOOKING = "SELECT id, booking_id, type, actor_id, created_date "
+            + "FROM booking_events WHERE booking_id = ? ORDER BY created_date, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<BookingEventDto> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    private ScheduledExecutorService writer;
+
+    public BookingEventLog(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                           @Value("${shareit.booking-events.queue-capacity:10000}") int queueCapacity,
+                           @Value("${shareit.booking-events.batch-size:500}") int batchSize,
+                           @Value("${shareit.booking-events.flush-interval:1s}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        meterRegistry.gauge("shareit.booking.events.queue.size", queue, Collection::size);
+        this.published = meterRegistry.counter("shareit.booking.events", "result", "queued");
+        this.dropped = meterRegistry.counter("shareit.booking.events", "result", "dropped");
+        this.written = meterRegistry.counter("shareit.booking.events", "result", "written");
+        this.failed = meterRegistry.counter("shareit.booking.events", "result", "failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-event-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long delay = flushInterval.toMillis();
+        writer.scheduleWithFixedDelay(this::flush, delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(flushInterval.toMillis() * 2, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    /**
+     * Queues the event. If called inside a transaction, the event is queued only after commit.
+     */
+    public void publish(Long bookingId, BookingEventType type, Long actorId) {
+        BookingEventDto event = BookingEventDto.builder()
+                .bookingId(bookingId)
+                .type(type)
+                .actorId(actorId)
+                .created(LocalDateTime.now())
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(event);
+            }
+        });
+    }
+
+    /**
+     * Writes every queued event in batches. Runs on the writer thread and can be called to drain the queue
+     * immediately.
+     */
+    public synchronized void flush() {
+        List<BookingEventDto> batch = drainBatch();
+        while (!batch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (statement, event) -> {
+                    statement.setLong(1, event.getBookingId());
+                    statement.setString(2, event.getType().name());
+                    statement.setLong(3, event.getActorId());
+                    statement.setTimestamp(4, Timestamp.valueOf(event.getCreated()));
+                });
+                written.increment(batch.size());
+            } catch (RuntimeException e) {
+                failed.increment(batch.size());
+                log.error("failed to write {} booking events", batch.size(), e);
+            }
+            batch = drainBatch();
+        }
+    }
+
+    public List<BookingEventDto> findByBookingId(Long bookingId) {
+        return jdbcTemplate.query(SELECT_BY_BOOKING, (rs, rowNum) -> BookingEventDto.builder()
+                .id(rs.getLong("id"))
+                .bookingId(rs.getLong("booking_id"))
+                .type(BookingEventType.valueOf(rs.getString("type")))
+                .actorId(rs.getLong("actor_id"))
+                .created(rs.getTimestamp("created_date").toLocalDateTime())
+                .build(), bookingId);
+    }
+
+    private List<BookingEventDto> drainBatch() {
+        List<BookingEventDto> batch = new ArrayList<>(batchSize);
+        queue.drainTo(batch, batchSize);
+        return batch;
+    }
+
+    private void enqueue(BookingEventDto event) {
+        if (queue.offer(event)) {
+            published.increment();
+        } else {
+            dropped.increment();
+            log.warn("booking event queue is full, dropped event {}", event);
+        }
+    }
+}
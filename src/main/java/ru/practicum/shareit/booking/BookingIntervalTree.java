@@ -0,0 +1,177 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Treap of half-open booking intervals [start, end) of a single item, augmented with the maximum end
+ * of every subtree so that the overlap check descends a single path.
+ * Not thread-safe, callers synchronize on the instance.
+ */
+class BookingIntervalTree {
+
+    private final Map<Long, LocalDateTime> startsByBookingId = new HashMap<>();
+    private Node root;
+
+    boolean insert(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (startsByBookingId.containsKey(bookingId)) {
+            return false;
+        }
+        root = insert(root, new Node(bookingId, start, end));
+        startsByBookingId.put(bookingId, start);
+        return true;
+    }
+
+    boolean remove(Long bookingId) {
+        LocalDateTime start = startsByBookingId.remove(bookingId);
+        if (start == null) {
+            return false;
+        }
+        root = remove(root, bookingId, start);
+        return true;
+    }
+
+    /**
+     * Removes every interval that ends at or before the given time. Only the subtrees of intervals that
+     * start before it are visited.
+     */
+    int removeEndedBy(LocalDateTime time) {
+        List<Long> ended = new ArrayList<>();
+        collectEndedBy(root, time, ended);
+        for (Long bookingId : ended) {
+            remove(bookingId);
+        }
+        return ended.size();
+    }
+
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(to) && node.end.isAfter(from)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(from)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return startsByBookingId.size();
+    }
+
+    private static void collectEndedBy(Node node, LocalDateTime time, List<Long> ended) {
+        while (node != null) {
+            collectEndedBy(node.left, time, ended);
+            if (!node.start.isBefore(time)) {
+                return;
+            }
+            if (!node.end.isAfter(time)) {
+                ended.add(node.bookingId);
+            }
+            node = node.right;
+        }
+    }
+
+    private Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (compare(newNode.start, newNode.bookingId, node) < 0) {
+            node.left = insert(node.left, newNode);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, newNode);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, Long bookingId, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, bookingId, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, bookingId, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, bookingId, start);
+        } else {
+            if (node.left == null || node.right == null) {
+                return node.left != null ? node.left : node.right;
+            }
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = remove(node.right, bookingId, start);
+            } else {
+                node = rotateLeft(node);
+                node.left = remove(node.left, bookingId, start);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int compare(LocalDateTime start, Long bookingId, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : bookingId.compareTo(node.bookingId);
+    }
+
+    private static class Node {
+        private final Long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
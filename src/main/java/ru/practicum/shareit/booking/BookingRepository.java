@@ -1,46 +1,225 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findAllByBookerIdAndStatus(Long userId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findAllByBookerId(Long userId, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndEndBefore(Long userId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartAfter(Long userId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfter(Long userId,
-                                                          LocalDateTime start,
-                                                          LocalDateTime end,
-                                                          Pageable pageRequest);
-
-    List<Booking> findByItemOwnerId(Long userId, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStatus(Long userId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndEndBefore(Long userId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartAfter(Long userId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfter(Long userId,
-                                                             LocalDateTime start,
-                                                             LocalDateTime end,
-                                                             Pageable pageRequest);
-
-    List<Booking> findByItemId(Long itemId);
-
-    List<Booking> findByItemIdIn(Collection<Long> itemIds);
-
-    List<Booking> findByBookerIdAndItemIdAndEndBefore(Long userId, Long itemId, LocalDateTime end);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findWithItemAndBookerById(Long bookingId);
+
+    /**
+     * Moves a WAITING booking of an item owned by {@code ownerId} to {@code status} in one statement.
+     * Returns the number of updated rows, 0 when the booking is missing, not the owner's or already decided.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status where b.id = :bookingId "
+            + "and b.status = ru.practicum.shareit.booking.BookingStatus.WAITING "
+            + "and b.item.id in (select i.id from Item i where i.owner.id = :ownerId)")
+    int updateStatusIfWaiting(@Param("bookingId") Long bookingId,
+                              @Param("ownerId") Long ownerId,
+                              @Param("status") BookingStatus status);
+
+    /**
+     * Filters on the foreign key columns: a derived {@code findByBookerId} compares the id of the fetched user
+     * and an owner condition through {@code b.item.owner} is applied after the outer joins of the entity graph,
+     * and H2 answers both with a full scan of bookings.
+     */
+    String BY_BOOKER = "select b from Booking b where b.booker.id = :userId ";
+
+    String BY_ITEM_OWNER = "select b from Booking b "
+            + "where b.item.id in (select i.id from Item i where i.owner.id = :userId) ";
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_BOOKER + "and b.status = :status")
+    Slice<Booking> findAllByBookerIdAndStatus(@Param("userId") Long userId,
+                                              @Param("status") BookingStatus status,
+                                              Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_BOOKER)
+    Slice<Booking> findAllByBookerId(@Param("userId") Long userId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_BOOKER + "and b.end < :end")
+    Slice<Booking> findAllByBookerIdAndEndBefore(@Param("userId") Long userId,
+                                                 @Param("end") LocalDateTime end,
+                                                 Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_BOOKER + "and b.start > :start")
+    Slice<Booking> findAllByBookerIdAndStartAfter(@Param("userId") Long userId,
+                                                  @Param("start") LocalDateTime start,
+                                                  Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_BOOKER + "and b.start < :start and b.end > :end")
+    Slice<Booking> findByBookerIdAndStartBeforeAndEndAfter(@Param("userId") Long userId,
+                                                           @Param("start") LocalDateTime start,
+                                                           @Param("end") LocalDateTime end,
+                                                           Pageable pageRequest);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_ITEM_OWNER)
+    Slice<Booking> findByItemOwnerId(@Param("userId") Long userId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_ITEM_OWNER + "and b.status = :status")
+    Slice<Booking> findByItemOwnerIdAndStatus(@Param("userId") Long userId,
+                                              @Param("status") BookingStatus status,
+                                              Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_ITEM_OWNER + "and b.end < :end")
+    Slice<Booking> findByItemOwnerIdAndEndBefore(@Param("userId") Long userId,
+                                                 @Param("end") LocalDateTime end,
+                                                 Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_ITEM_OWNER + "and b.start > :start")
+    Slice<Booking> findByItemOwnerIdAndStartAfter(@Param("userId") Long userId,
+                                                  @Param("start") LocalDateTime start,
+                                                  Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_ITEM_OWNER + "and b.start < :start and b.end > :end")
+    Slice<Booking> findByItemOwnerIdAndStartBeforeAndEndAfter(@Param("userId") Long userId,
+                                                              @Param("start") LocalDateTime start,
+                                                              @Param("end") LocalDateTime end,
+                                                              Pageable pageRequest);
+
+    String BEFORE_CURSOR = "(b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) ";
+
+    String START_DESC = "order by b.start desc, b.id desc";
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_BOOKER + "and " + BEFORE_CURSOR + START_DESC)
+    Slice<Booking> findByBookerIdBeforeCursor(@Param("userId") Long userId,
+                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_BOOKER + "and b.status = :status and " + BEFORE_CURSOR + START_DESC)
+    Slice<Booking> findByBookerIdAndStatusBeforeCursor(@Param("userId") Long userId,
+                                                       @Param("status") BookingStatus status,
+                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                       @Param("cursorId") Long cursorId,
+                                                       Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_BOOKER + "and b.end < :now and " + BEFORE_CURSOR + START_DESC)
+    Slice<Booking> findPastByBookerIdBeforeCursor(@Param("userId") Long userId,
+                                                  @Param("now") LocalDateTime now,
+                                                  @Param("cursorStart") LocalDateTime cursorStart,
+                                                  @Param("cursorId") Long cursorId,
+                                                  Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_BOOKER + "and b.start > :now and " + BEFORE_CURSOR + START_DESC)
+    Slice<Booking> findFutureByBookerIdBeforeCursor(@Param("userId") Long userId,
+                                                    @Param("now") LocalDateTime now,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_BOOKER + "and b.start < :now and b.end > :now and " + BEFORE_CURSOR + START_DESC)
+    Slice<Booking> findCurrentByBookerIdBeforeCursor(@Param("userId") Long userId,
+                                                     @Param("now") LocalDateTime now,
+                                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                                     @Param("cursorId") Long cursorId,
+                                                     Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_ITEM_OWNER + "and " + BEFORE_CURSOR + START_DESC)
+    Slice<Booking> findByItemOwnerIdBeforeCursor(@Param("userId") Long userId,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_ITEM_OWNER + "and b.status = :status and " + BEFORE_CURSOR + START_DESC)
+    Slice<Booking> findByItemOwnerIdAndStatusBeforeCursor(@Param("userId") Long userId,
+                                                          @Param("status") BookingStatus status,
+                                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                                          @Param("cursorId") Long cursorId,
+                                                          Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_ITEM_OWNER + "and b.end < :now and " + BEFORE_CURSOR + START_DESC)
+    Slice<Booking> findPastByItemOwnerIdBeforeCursor(@Param("userId") Long userId,
+                                                     @Param("now") LocalDateTime now,
+                                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                                     @Param("cursorId") Long cursorId,
+                                                     Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_ITEM_OWNER + "and b.start > :now and " + BEFORE_CURSOR + START_DESC)
+    Slice<Booking> findFutureByItemOwnerIdBeforeCursor(@Param("userId") Long userId,
+                                                       @Param("now") LocalDateTime now,
+                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                       @Param("cursorId") Long cursorId,
+                                                       Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(BY_ITEM_OWNER + "and b.start < :now and b.end > :now and " + BEFORE_CURSOR + START_DESC)
+    Slice<Booking> findCurrentByItemOwnerIdBeforeCursor(@Param("userId") Long userId,
+                                                        @Param("now") LocalDateTime now,
+                                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                                        @Param("cursorId") Long cursorId,
+                                                        Pageable pageable);
+
+    /**
+     * Loads, for every item, only the booking with the given status that started last before {@code now}
+     * and the one that starts first after it. Both correlated subqueries resolve on the (item, status, start) index.
+     */
+    @Query("select b from Booking b where b.item.id in :itemIds and b.status = :status and ("
+            + "b.start = (select max(l.start) from Booking l "
+            + "where l.item = b.item and l.status = :status and l.start < :now) "
+            + "or b.start = (select min(n.start) from Booking n "
+            + "where n.item = b.item and n.status = :status and n.start > :now))")
+    List<Booking> findLastAndNextByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("status") BookingStatus status,
+                                            @Param("now") LocalDateTime now);
+
+    /**
+     * Counts the bookings of every item of the owner by state, with the same conditions as the owner finders,
+     * and sums the seconds of approved bookings that fall between {@code from} and {@code now}.
+     * Items without bookings are returned with zero counts.
+     */
+    @Query(value = "SELECT i.id AS itemId, i.name AS itemName, COUNT(b.id) AS total, "
+            + "SUM(CASE WHEN b.start_date < :now AND b.end_date > :now THEN 1 ELSE 0 END) AS current, "
+            + "SUM(CASE WHEN b.end_date < :now THEN 1 ELSE 0 END) AS past, "
+            + "SUM(CASE WHEN b.start_date > :now THEN 1 ELSE 0 END) AS future, "
+            + "SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END) AS waiting, "
+            + "SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END) AS rejected, "
+            + "SUM(CASE WHEN b.status = 'APPROVED' AND b.start_date < :now AND b.end_date > :from "
+            + "THEN DATEDIFF('SECOND', GREATEST(b.start_date, :from), LEAST(b.end_date, :now)) ELSE 0 END) "
+            + "AS approvedSeconds "
+            + "FROM items i LEFT JOIN bookings b ON b.item_id = i.id "
+            + "WHERE i.user_id = :ownerId "
+            + "GROUP BY i.id, i.name "
+            + "ORDER BY i.id",
+            nativeQuery = true)
+    List<ItemBookingSummary> summarizeByItemOwnerId(@Param("ownerId") Long ownerId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("now") LocalDateTime now);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId, BookingStatus status,
+                                                           LocalDateTime end);
+
+    List<Booking> findAllByStatusInAndEndAfter(Collection<BookingStatus> statuses, LocalDateTime end);
 }
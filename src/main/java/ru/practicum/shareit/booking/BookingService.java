@@ -1,7 +1,12 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
 import java.util.List;
 
@@ -9,11 +14,21 @@ public interface BookingService {
 
     BookingResponse create(BookingRequest bookingDto, Long userId);
 
+    List<BookingBatchResult> createAll(List<BookingRequest> bookingRequests, Long userId);
+
     BookingResponse setBookingApproval(Long userId, Boolean approved, Long bookingId);
 
     BookingResponse findBookingById(Long bookingId, Long userId);
 
-    List<BookingResponse> findBookingsOfUser(BookingState state, Long userId, int from, int size);
+    List<BookingEventDto> findBookingEvents(Long bookingId, Long userId);
+
+    Slice<BookingResponse> findBookingsOfUser(BookingState state, Long userId, int from, int size);
+
+    Slice<BookingResponse> findBookingsOfOwner(BookingState state, Long userId, int from, int size);
+
+    BookingSummaryDto findOwnerSummary(Long userId, int days);
+
+    Slice<BookingResponse> findBookingsOfUser(BookingState state, Long userId, BookingCursor cursor, int size);
 
-    List<BookingResponse> findBookingsOfOwner(BookingState state, Long userId, int from, int size);
+    Slice<BookingResponse> findBookingsOfOwner(BookingState state, Long userId, BookingCursor cursor, int size);
 }
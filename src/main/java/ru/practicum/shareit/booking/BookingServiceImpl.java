@@ -3,12 +3,18 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.ItemUtilizationDto;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.exception.BusinessObjectNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
@@ -16,64 +22,110 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
-import ru.practicum.shareit.user.dto.UserMapper;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
+    private static final String ALREADY_BOOKED = "Item is already booked for the requested period";
+    private static final Sort START_DESC = Sort.by("start").descending().and(Sort.by("id").descending());
+
     private final BookingRepository repository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final BookingEventLog eventLog;
 
     @Override
     @Transactional
     public BookingResponse create(BookingRequest bookingDto, Long userId) {
-        User booker = UserMapper.toUser(userService.findUserById(userId));
+        User booker = userService.getUser(userId);
         Item item = itemRepository.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new BusinessObjectNotFoundException("Item was not found"));
-        if (!item.getAvailable()) {
-            throw new BookingValidationException("Unable to create booking with an unavailable item");
+        Booking booking = toNewBooking(bookingDto, item, booker);
+        Booking savedBooking = repository.save(booking);
+        if (!availabilityIndex.tryAdd(item.getId(), savedBooking.getId(), savedBooking.getStart(), savedBooking.getEnd())) {
+            throw new BookingValidationException(ALREADY_BOOKED);
         }
-        if (userId.equals(item.getOwner().getId())) {
-            throw new UserAccessForbiddenException("Owner of an item cannot rent it");
+        eventLog.publish(savedBooking.getId(), BookingEventType.CREATED, userId);
+        return BookingMapper.toBookingDto(savedBooking);
+    }
+
+    /**
+     * Creates every valid booking of the list in one transaction. The booker and all items are loaded once,
+     * and the new rows are written in JDBC batches on flush. A rejected entry does not affect the others.
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResult> createAll(List<BookingRequest> bookingRequests, Long userId) {
+        User booker = userService.getUser(userId);
+        Set<Long> itemIds = bookingRequests.stream()
+                .map(BookingRequest::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<BookingBatchResult> results = new ArrayList<>(bookingRequests.size());
+        for (int i = 0; i < bookingRequests.size(); i++) {
+            BookingRequest bookingRequest = bookingRequests.get(i);
+            try {
+                Item item = items.get(bookingRequest.getItemId());
+                if (item == null) {
+                    throw new BusinessObjectNotFoundException("Item was not found");
+                }
+                Booking savedBooking = saveBatchEntry(toNewBooking(bookingRequest, item, booker));
+                eventLog.publish(savedBooking.getId(), BookingEventType.CREATED, userId);
+                results.add(BookingBatchResult.builder()
+                        .index(i)
+                        .booking(BookingMapper.toBookingDto(savedBooking))
+                        .build());
+            } catch (BusinessObjectNotFoundException | BookingValidationException | UserAccessForbiddenException e) {
+                results.add(BookingBatchResult.builder()
+                        .index(i)
+                        .error(e.getMessage())
+                        .build());
+            }
         }
-        Booking booking = BookingMapper.toBooking(bookingDto, item, booker, BookingStatus.WAITING);
-        checkCorrectTiming(booking);
-        return BookingMapper.toBookingDto(repository.save(booking));
+        return results;
     }
 
     @Override
     @Transactional
     public BookingResponse setBookingApproval(Long userId, Boolean approved, Long bookingId) {
         UserDto userDto = userService.findUserById(userId);
-        Booking booking = repository.findById(bookingId)
-                .orElseThrow(() -> new BusinessObjectNotFoundException("Booking was not found"));
-        if (!userId.equals(booking.getItem().getOwner().getId())) {
-            if (userId.equals(booking.getBooker().getId())) {
-                throw new UserAccessForbiddenException("Booker cannot set approval");
-            }
-            throw new BookingValidationException("Only the owner of an item is allowed to set the booking approval");
-        }
-        if (booking.getStatus() != BookingStatus.WAITING) {
-            throw new BookingValidationException("Unable to set the approval to booking without status WAITING");
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (repository.updateStatusIfWaiting(bookingId, userId, status) == 0) {
+            throw approvalRejection(userId, bookingId);
         }
+        Booking booking = repository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new BusinessObjectNotFoundException("Booking was not found"));
         if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
+            availabilityIndex.add(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+            eventLog.publish(booking.getId(), BookingEventType.APPROVED, userId);
         } else {
-            booking.setStatus(BookingStatus.REJECTED);
+            availabilityIndex.remove(booking.getItem().getId(), booking.getId());
+            eventLog.publish(booking.getId(), BookingEventType.REJECTED, userId);
         }
-        return BookingMapper.toBookingDto(repository.save(booking));
+        return BookingMapper.toBookingDto(booking);
     }
 
     @Override
     public BookingResponse findBookingById(Long bookingId, Long userId) {
         UserDto userDto = userService.findUserById(userId);
-        Booking booking = repository.findById(bookingId)
+        Booking booking = repository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new BusinessObjectNotFoundException("Booking was not found"));
         if (userId.equals(booking.getBooker().getId())
                 || userId.equals(booking.getItem().getOwner().getId())) {
@@ -84,12 +136,17 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponse> findBookingsOfUser(BookingState state, Long userId, int from, int size) {
+    public List<BookingEventDto> findBookingEvents(Long bookingId, Long userId) {
+        findBookingById(bookingId, userId);
+        return eventLog.findByBookingId(bookingId);
+    }
+
+    @Override
+    public Slice<BookingResponse> findBookingsOfUser(BookingState state, Long userId, int from, int size) {
         UserDto userDto = userService.findUserById(userId);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings;
-        Sort sort = Sort.by("start").descending();
-        Pageable pageRequest = PageRequest.of(from > 0 ? from / size : 0, size, sort);
+        Slice<Booking> bookings;
+        Pageable pageRequest = PageRequest.of(from > 0 ? from / size : 0, size, START_DESC);
 
         switch (state) {
             case ALL:
@@ -113,16 +170,15 @@ public class BookingServiceImpl implements BookingService {
             default:
                 throw new UnsupportedBookingStateException("Unknown state: UNSUPPORTED_STATUS");
         }
-        return BookingMapper.mapToBookingDto(bookings);
+        return bookings.map(BookingMapper::toBookingDto);
     }
 
     @Override
-    public List<BookingResponse> findBookingsOfOwner(BookingState state, Long userId, int from, int size) {
+    public Slice<BookingResponse> findBookingsOfOwner(BookingState state, Long userId, int from, int size) {
         UserDto userDto = userService.findUserById(userId);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings;
-        Sort sort = Sort.by("start").descending();
-        Pageable pageRequest = PageRequest.of(from > 0 ? from / size : 0, size, sort);
+        Slice<Booking> bookings;
+        Pageable pageRequest = PageRequest.of(from > 0 ? from / size : 0, size, START_DESC);
 
         switch (state) {
             case ALL:
@@ -146,7 +202,159 @@ public class BookingServiceImpl implements BookingService {
             default:
                 throw new UnsupportedBookingStateException("Unknown state: UNSUPPORTED_STATUS");
         }
-        return BookingMapper.mapToBookingDto(bookings);
+        return bookings.map(BookingMapper::toBookingDto);
+    }
+
+    @Override
+    public BookingSummaryDto findOwnerSummary(Long userId, int days) {
+        UserDto userDto = userService.findUserById(userId);
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemBookingSummary> summaries = repository.summarizeByItemOwnerId(userId, now.minusDays(days), now);
+
+        Map<BookingState, Long> counts = new EnumMap<>(BookingState.class);
+        counts.put(BookingState.ALL, sum(summaries, ItemBookingSummary::getTotal));
+        counts.put(BookingState.CURRENT, sum(summaries, ItemBookingSummary::getCurrent));
+        counts.put(BookingState.PAST, sum(summaries, ItemBookingSummary::getPast));
+        counts.put(BookingState.FUTURE, sum(summaries, ItemBookingSummary::getFuture));
+        counts.put(BookingState.WAITING, sum(summaries, ItemBookingSummary::getWaiting));
+        counts.put(BookingState.REJECTED, sum(summaries, ItemBookingSummary::getRejected));
+
+        double windowSeconds = Duration.ofDays(days).getSeconds();
+        List<ItemUtilizationDto> items = summaries.stream()
+                .map(summary -> ItemUtilizationDto.builder()
+                        .itemId(summary.getItemId())
+                        .name(summary.getItemName())
+                        .bookings(summary.getTotal())
+                        .utilization(summary.getApprovedSeconds() / windowSeconds)
+                        .build())
+                .collect(Collectors.toList());
+        return BookingSummaryDto.builder()
+                .days(days)
+                .counts(counts)
+                .items(items)
+                .build();
+    }
+
+    @Override
+    public Slice<BookingResponse> findBookingsOfUser(BookingState state, Long userId, BookingCursor cursor, int size) {
+        UserDto userDto = userService.findUserById(userId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursorStart = cursor.getStart();
+        Long cursorId = cursor.getId();
+        Pageable pageRequest = PageRequest.of(0, size);
+        Slice<Booking> bookings;
+
+        switch (state) {
+            case ALL:
+                bookings = repository.findByBookerIdBeforeCursor(userId, cursorStart, cursorId, pageRequest);
+                break;
+            case PAST:
+                bookings = repository.findPastByBookerIdBeforeCursor(userId, now, cursorStart, cursorId, pageRequest);
+                break;
+            case WAITING:
+                bookings = repository.findByBookerIdAndStatusBeforeCursor(userId, BookingStatus.WAITING,
+                        cursorStart, cursorId, pageRequest);
+                break;
+            case REJECTED:
+                bookings = repository.findByBookerIdAndStatusBeforeCursor(userId, BookingStatus.REJECTED,
+                        cursorStart, cursorId, pageRequest);
+                break;
+            case FUTURE:
+                bookings = repository.findFutureByBookerIdBeforeCursor(userId, now, cursorStart, cursorId, pageRequest);
+                break;
+            case CURRENT:
+                bookings = repository.findCurrentByBookerIdBeforeCursor(userId, now, cursorStart, cursorId, pageRequest);
+                break;
+            default:
+                throw new UnsupportedBookingStateException("Unknown state: UNSUPPORTED_STATUS");
+        }
+        return bookings.map(BookingMapper::toBookingDto);
+    }
+
+    @Override
+    public Slice<BookingResponse> findBookingsOfOwner(BookingState state, Long userId, BookingCursor cursor, int size) {
+        UserDto userDto = userService.findUserById(userId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursorStart = cursor.getStart();
+        Long cursorId = cursor.getId();
+        Pageable pageRequest = PageRequest.of(0, size);
+        Slice<Booking> bookings;
+
+        switch (state) {
+            case ALL:
+                bookings = repository.findByItemOwnerIdBeforeCursor(userId, cursorStart, cursorId, pageRequest);
+                break;
+            case PAST:
+                bookings = repository.findPastByItemOwnerIdBeforeCursor(userId, now, cursorStart, cursorId, pageRequest);
+                break;
+            case WAITING:
+                bookings = repository.findByItemOwnerIdAndStatusBeforeCursor(userId, BookingStatus.WAITING,
+                        cursorStart, cursorId, pageRequest);
+                break;
+            case REJECTED:
+                bookings = repository.findByItemOwnerIdAndStatusBeforeCursor(userId, BookingStatus.REJECTED,
+                        cursorStart, cursorId, pageRequest);
+                break;
+            case FUTURE:
+                bookings = repository.findFutureByItemOwnerIdBeforeCursor(userId, now, cursorStart, cursorId, pageRequest);
+                break;
+            case CURRENT:
+                bookings = repository.findCurrentByItemOwnerIdBeforeCursor(userId, now, cursorStart, cursorId,
+                        pageRequest);
+                break;
+            default:
+                throw new UnsupportedBookingStateException("Unknown state: UNSUPPORTED_STATUS");
+        }
+        return bookings.map(BookingMapper::toBookingDto);
+    }
+
+    private static long sum(List<ItemBookingSummary> summaries, ToLongFunction<ItemBookingSummary> count) {
+        return summaries.stream().mapToLong(count).sum();
+    }
+
+    /**
+     * Explains why the conditional status update matched no row. Only called on the failure path, so the
+     * successful approval needs no read before the update.
+     */
+    private RuntimeException approvalRejection(Long userId, Long bookingId) {
+        Booking booking = repository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new BusinessObjectNotFoundException("Booking was not found"));
+        if (!userId.equals(booking.getItem().getOwner().getId())) {
+            if (userId.equals(booking.getBooker().getId())) {
+                return new UserAccessForbiddenException("Booker cannot set approval");
+            }
+            return new BookingValidationException("Only the owner of an item is allowed to set the booking approval");
+        }
+        return new BookingValidationException("Unable to set the approval to booking without status WAITING");
+    }
+
+    private Booking toNewBooking(BookingRequest bookingDto, Item item, User booker) {
+        if (!item.getAvailable()) {
+            throw new BookingValidationException("Unable to create booking with an unavailable item");
+        }
+        if (booker.getId().equals(item.getOwner().getId())) {
+            throw new UserAccessForbiddenException("Owner of an item cannot rent it");
+        }
+        Booking booking = BookingMapper.toBooking(bookingDto, item, booker, BookingStatus.WAITING);
+        checkCorrectTiming(booking);
+        return booking;
+    }
+
+    /**
+     * Saves a batch entry without rolling back the rest of the batch when its period is taken. The id comes
+     * from the sequence, so the row is only inserted on flush and the common overlap case costs no statement.
+     */
+    private Booking saveBatchEntry(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        if (availabilityIndex.overlaps(itemId, booking.getStart(), booking.getEnd())) {
+            throw new BookingValidationException(ALREADY_BOOKED);
+        }
+        Booking savedBooking = repository.save(booking);
+        if (!availabilityIndex.tryAdd(itemId, savedBooking.getId(), savedBooking.getStart(), savedBooking.getEnd())) {
+            repository.delete(savedBooking);
+            throw new BookingValidationException(ALREADY_BOOKED);
+        }
+        return savedBooking;
     }
 
     private void checkCorrectTiming(Booking booking) {
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Booking counts of one item, as aggregated by {@link BookingRepository#summarizeByItemOwnerId}.
+ */
+public interface ItemBookingSummary {
+
+    Long getItemId();
+
+    String getItemName();
+
+    long getTotal();
+
+    long getCurrent();
+
+    long getPast();
+
+    long getFuture();
+
+    long getWaiting();
+
+    long getRejected();
+
+    long getApprovedSeconds();
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one entry of a batch booking request: the created booking or the reason it was rejected.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class BookingBatchResult {
+
+    private int index;
+    private BookingResponse booking;
+    private String error;
+}
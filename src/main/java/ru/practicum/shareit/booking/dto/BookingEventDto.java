@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.BookingEventType;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class BookingEventDto {
+
+    private Long id;
+    private Long bookingId;
+    private BookingEventType type;
+    private Long actorId;
+    private LocalDateTime created;
+}
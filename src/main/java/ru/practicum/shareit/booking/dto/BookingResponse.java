@@ -6,8 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
 
@@ -20,6 +20,6 @@ public class BookingResponse {
     private LocalDateTime start;
     private LocalDateTime end;
     private BookingStatus status;
-    private User booker;
-    private Item item;
+    private UserDto booker;
+    private ItemDto item;
 }
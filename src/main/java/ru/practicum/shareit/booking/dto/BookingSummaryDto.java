@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.BookingState;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owner dashboard: how many bookings of the owner's items fall into each state and, per item, the share
+ * of the last {@code days} days covered by approved bookings.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class BookingSummaryDto {
+
+    private int days;
+    private Map<BookingState, Long> counts;
+    private List<ItemUtilizationDto> items;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class ItemUtilizationDto {
+
+    private Long itemId;
+    private String name;
+    private long bookings;
+    private double utilization;
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import javax.cache.CacheManager;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes hit ratio, removal and eviction counts of the entity caches at /actuator/entitycache.
+ * Removals are entries dropped because the entity was updated or deleted, evictions are entries
+ * dropped by the size or TTL bound.
+ */
+@Endpoint(id = "entitycache")
+@RequiredArgsConstructor
+public class EntityCacheEndpoint {
+
+    private final CacheManager entityCacheManager;
+
+    @ReadOperation
+    public Map<String, RegionStatistics> statistics() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Map<String, RegionStatistics> statistics = new LinkedHashMap<>();
+        for (String region : EntityCacheConfig.REGIONS) {
+            ObjectName name = new ObjectName(String.format("javax.cache:type=CacheStatistics,CacheManager=%s,Cache=%s",
+                    entityCacheManager.getURI(), region));
+            long hits = (Long) server.getAttribute(name, "CacheHits");
+            long misses = (Long) server.getAttribute(name, "CacheMisses");
+            statistics.put(region, RegionStatistics.builder()
+                    .hits(hits)
+                    .misses(misses)
+                    .hitRatio(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                    .puts((Long) server.getAttribute(name, "CachePuts"))
+                    .removals((Long) server.getAttribute(name, "CacheRemovals"))
+                    .evictions((Long) server.getAttribute(name, "CacheEvictions"))
+                    .build());
+        }
+        return statistics;
+    }
+
+    @Data
+    @Builder
+    public static class RegionStatistics {
+        private long hits;
+        private long misses;
+        private double hitRatio;
+        private long puts;
+        private long removals;
+        private long evictions;
+    }
+}
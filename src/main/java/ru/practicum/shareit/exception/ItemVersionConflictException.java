@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class ItemVersionConflictException extends RuntimeException {
+    public ItemVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemViewDto;
+import ru.practicum.shareit.server.ReadQueryExecutor;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-only item queries of {@link ItemController} served asynchronously: the request thread is released
+ * while the query runs on the {@link ReadQueryExecutor}.
+ */
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/async/items")
+@Slf4j
+public class AsyncItemController {
+
+    private final ItemService itemService;
+    private final ReadQueryExecutor readQueryExecutor;
+
+    @GetMapping
+    public CompletableFuture<ResponseEntity<List<ItemViewDto>>> getAllItemsViewDtoByOwner(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @PositiveOrZero @RequestParam(required = false) Long cursor) {
+        log.info("пришел GET запрос /async/items с userId: {}, cursor: {}", userId, cursor);
+        return readQueryExecutor.supply(() -> {
+            List<ItemViewDto> allItems = cursor == null
+                    ? itemService.getAllItemsByOwner(userId, from, size)
+                    : itemService.getAllItemsByOwner(userId, cursor, size);
+            log.info("отправлен ответ на GET запрос /async/items с userId: {} с телом: {}", userId, allItems);
+            return ItemController.withNextCursor(allItems, size, ItemViewDto::getId);
+        });
+    }
+
+    @GetMapping("/{itemId}")
+    public CompletableFuture<ResponseEntity<ItemViewDto>> findItemViewDtoByIdResponse(@PathVariable Long itemId,
+                                                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("пришел GET запрос /async/items/:itemId с itemId: {}", itemId);
+        return readQueryExecutor.supply(() -> {
+            ItemViewDto responseItemDto = itemService.findItemById(itemId, userId);
+            log.info("отправлен ответ на GET запрос /async/items/:itemId с itemId: {} и с телом: {}", itemId,
+                    responseItemDto);
+            return ItemController.withETag(responseItemDto, responseItemDto.getVersion());
+        });
+    }
+
+    @GetMapping(value = "/search")
+    public CompletableFuture<List<ItemDto>> searchItemDtoByTextResponse(@NotNull @RequestParam String text,
+                                                                        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                                        @Positive @RequestParam(defaultValue = "10") int size) {
+        log.info("пришел GET запрос /async/items/search с text: {}", text);
+        return readQueryExecutor.supply(() -> {
+            List<ItemDto> responseListItemDto = itemService.searchItemByText(text, from, size);
+            log.info("отправлен ответ на GET запрос /async/items/search с text: {} с телом: {}", text,
+                    responseListItemDto);
+            return responseListItemDto;
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size bounded set of (user, item) pairs already known to be allowed to comment. Eligibility comes from
+ * an approved booking that has ended. That never stops being true: approval is final and the booking keeps
+ * its booker and item from being deleted. So entries need no expiry or invalidation.
+ */
+@Component
+public class CommentEligibilityCache {
+
+    private final Cache<Key, Boolean> eligible;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CommentEligibilityCache(MeterRegistry meterRegistry,
+                                   @Value("${shareit.comments.eligibility-cache.maximum-size:10000}") long maximumSize) {
+        this.eligible = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        meterRegistry.gaugeMapSize("shareit.comments.eligibility.cache.size", Tags.empty(), eligible.asMap());
+        this.hits = meterRegistry.counter("shareit.comments.eligibility.cache", "result", "hit");
+        this.misses = meterRegistry.counter("shareit.comments.eligibility.cache", "result", "miss");
+    }
+
+    public boolean isEligible(Long userId, Long itemId) {
+        if (eligible.getIfPresent(new Key(userId, itemId)) != null) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    public void markEligible(Long userId, Long itemId) {
+        eligible.put(new Key(userId, itemId), Boolean.TRUE);
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Key {
+        private final Long userId;
+        private final Long itemId;
+    }
+}
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
@@ -10,7 +13,22 @@ import java.util.List;
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItemId(Long itemId);
+    @Query("select c from Comment c where c.item.id = :itemId order by c.id desc")
+    List<Comment> findByItemIdOrderByIdDesc(@Param("itemId") Long itemId, Pageable pageable);
 
-    List<Comment> findByItemIdIn(Collection<Long> itemIds);
+    @Query("select c from Comment c where c.item.id = :itemId and c.id < :commentId order by c.id desc")
+    List<Comment> findByItemIdAndIdLessThanOrderByIdDesc(@Param("itemId") Long itemId,
+                                                         @Param("commentId") Long commentId,
+                                                         Pageable pageable);
+
+    /**
+     * The latest {@code limit} comments of each item, newest first.
+     */
+    @Query(value = "SELECT * FROM ("
+            + "SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.id DESC) AS position "
+            + "FROM comments c WHERE c.item_id IN (:itemIds)) latest "
+            + "WHERE latest.position <= :limit "
+            + "ORDER BY latest.item_id, latest.id DESC",
+            nativeQuery = true)
+    List<Comment> findLatestByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
 }
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "database")
+public class DatabaseItemSearchIndex implements ItemSearchIndex {
+
+    private final ItemRepository repository;
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(Long itemId) {
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        return ItemMapper.mapToItemDto(repository.findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(text,
+                text, PageRequest.of(from / size, size)));
+    }
+}
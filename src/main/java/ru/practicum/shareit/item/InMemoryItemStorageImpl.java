@@ -6,32 +6,45 @@ import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+/**
+ * Thread-safe item storage. Items are kept in a concurrent map with a secondary index of item ids by
+ * owner id. The index is updated inside the per-item {@code compute}, so an item is never indexed under two
+ * owners, and every change of an owner's id set happens inside a {@code compute} on that owner, so a set
+ * emptied and dropped by a concurrent delete is never written to afterwards.
+ * Not used by the services, which are backed by the database; there is no database-free profile.
+ */
 @Repository
 @Slf4j
 public class InMemoryItemStorageImpl implements ItemStorage {
 
-    private final Map<Long, Item> items = new HashMap<>();
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> itemIdsByOwner = new ConcurrentHashMap<>();
     private final AtomicLong nextId = new AtomicLong();
 
     @Override
     public List<Item> getAllItemsByOwner(Long id) {
-        return items.values().stream().filter(item -> item.getOwner().getId().equals(id)).collect(Collectors.toList());
+        return itemIdsByOwner.getOrDefault(id, Collections.emptySet()).stream()
+                .sorted()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     @Override
     public Item create(Item item) {
         setNextId(item);
-        items.put(item.getId(), item);
+        store(item);
         log.info("added a new item with id {}", item.getId());
         return item;
     }
 
     @Override
     public Item update(Item item) {
-        items.put(item.getId(), item);
+        store(item);
         log.info("item with id {} was updated", item.getId());
         return item;
     }
@@ -43,19 +56,45 @@ public class InMemoryItemStorageImpl implements ItemStorage {
 
     @Override
     public void delete(Long id) {
-        items.remove(id);
+        items.computeIfPresent(id, (itemId, item) -> {
+            unindex(item);
+            return null;
+        });
         log.info("item with id {} was deleted", id);
     }
 
     @Override
     public List<Item> searchItemByText(String text) {
+        String query = text.toLowerCase();
         return items.values().stream()
-                .filter(item -> item.getName().toLowerCase().contains(text.toLowerCase())
-                        || item.getDescription().toLowerCase().contains(text.toLowerCase()))
                 .filter(Item::getAvailable)
+                .filter(item -> item.getName().toLowerCase().contains(query)
+                        || item.getDescription().toLowerCase().contains(query))
+                .sorted(Comparator.comparing(Item::getId))
                 .collect(Collectors.toList());
     }
 
+    private void store(Item item) {
+        items.compute(item.getId(), (itemId, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+            }
+            itemIdsByOwner.compute(item.getOwner().getId(), (ownerId, ids) -> {
+                Set<Long> ownerItemIds = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                ownerItemIds.add(itemId);
+                return ownerItemIds;
+            });
+            return item;
+        });
+    }
+
+    private void unindex(Item item) {
+        itemIdsByOwner.computeIfPresent(item.getOwner().getId(), (ownerId, ids) -> {
+            ids.remove(item.getId());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
     private void setNextId(Item item) {
         item.setId(nextId.incrementAndGet());
     }
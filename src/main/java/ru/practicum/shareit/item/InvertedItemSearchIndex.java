@@ -0,0 +1,229 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded inverted index over lower-cased item names and descriptions. Trigram postings narrow
+ * substring queries down to a few candidates, which are then verified and ranked by where the text matched.
+ * Queries shorter than a trigram are checked against every indexed item. The index is loaded once all
+ * singletons exist, before the web server starts accepting requests.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "inverted", matchIfMissing = true)
+public class InvertedItemSearchIndex implements ItemSearchIndex, SmartInitializingSingleton {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository repository;
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Indexes every item of the database. Documents already in the index are kept, and a document is never
+     * replaced by an older version of its item, so changes committed while the items are read are not lost.
+     */
+    public void rebuild() {
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = repository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (Item item : batch) {
+                doIndex(new Document(item));
+                lastId = item.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        log.info("item search index was rebuilt with {} items", documents.size());
+    }
+
+    @Override
+    public void index(Item item) {
+        Document document = new Document(item);
+        afterCommit(() -> doIndex(document));
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        afterCommit(() -> doRemove(itemId));
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        if (query.isBlank()) {
+            return new ArrayList<>();
+        }
+        return candidates(query).stream()
+                .map(documents::get)
+                .filter(Objects::nonNull)
+                .filter(document -> document.available && document.contains(query))
+                .sorted(Comparator.comparingInt((Document document) -> document.score(query)).reversed()
+                        .thenComparing(document -> document.id))
+                .skip((long) (from / size) * size)
+                .limit(size)
+                .map(Document::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return documents.keySet();
+        }
+        List<Set<Long>> gramPostings = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            gramPostings.add(ids);
+        }
+        gramPostings.sort(Comparator.comparingInt(Set::size));
+        Set<Long> smallest = gramPostings.get(0);
+        List<Set<Long>> others = gramPostings.subList(1, gramPostings.size());
+        return smallest.stream()
+                .filter(id -> others.stream().allMatch(ids -> ids.contains(id)))
+                .collect(Collectors.toList());
+    }
+
+    private synchronized void doIndex(Document document) {
+        Document current = documents.get(document.id);
+        if (current != null && current.isNewerThan(document)) {
+            return;
+        }
+        doRemove(document.id);
+        documents.put(document.id, document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(document.id);
+        }
+    }
+
+    private synchronized void doRemove(Long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static Set<String> tokens(String text) {
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static class Document {
+        private final Long id;
+        private final Long version;
+        private final String name;
+        private final String description;
+        private final boolean available;
+        private final Long requestId;
+        private final String lowerName;
+        private final String lowerDescription;
+        private final Set<String> nameTokens;
+        private final Set<String> descriptionTokens;
+
+        Document(Item item) {
+            id = item.getId();
+            version = item.getVersion();
+            name = item.getName();
+            description = item.getDescription();
+            available = Boolean.TRUE.equals(item.getAvailable());
+            requestId = item.getRequest() != null ? item.getRequest().getId() : null;
+            lowerName = name.toLowerCase(Locale.ROOT);
+            lowerDescription = description.toLowerCase(Locale.ROOT);
+            nameTokens = tokens(lowerName);
+            descriptionTokens = tokens(lowerDescription);
+        }
+
+        boolean isNewerThan(Document other) {
+            return version != null && other.version != null && version > other.version;
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InvertedItemSearchIndex.grams(lowerName);
+            grams.addAll(InvertedItemSearchIndex.grams(lowerDescription));
+            return grams;
+        }
+
+        boolean contains(String query) {
+            return lowerName.contains(query) || lowerDescription.contains(query);
+        }
+
+        int score(String query) {
+            int score = 0;
+            if (lowerName.equals(query)) {
+                score += 8;
+            }
+            if (nameTokens.contains(query)) {
+                score += 4;
+            }
+            if (lowerName.contains(query)) {
+                score += 2;
+            }
+            if (descriptionTokens.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+
+        ItemDto toItemDto() {
+            return ItemDto.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .requestId(requestId)
+                    .build();
+        }
+    }
+}
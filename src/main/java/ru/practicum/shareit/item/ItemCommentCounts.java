@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The comment_count column of items, kept next to the item row so item views report the number of comments
+ * without counting them. It is deliberately not mapped on {@link ru.practicum.shareit.item.model.Item}: an
+ * atomic increment through JPA would be a bulk update that drops the whole items region of the second-level
+ * cache, while going through the entity would race and bump its version. Plain JDBC joins the surrounding
+ * transaction and leaves cached items alone.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemCommentCounts {
+
+    private static final String INCREMENT = "UPDATE items SET comment_count = comment_count + 1 WHERE id = :itemId";
+    private static final String SELECT_BY_IDS = "SELECT id, comment_count FROM items WHERE id IN (:itemIds)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void increment(Long itemId) {
+        jdbcTemplate.update(INCREMENT, new MapSqlParameterSource("itemId", itemId));
+    }
+
+    public Map<Long, Long> findByItemIdIn(Collection<Long> itemIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return counts;
+        }
+        jdbcTemplate.query(SELECT_BY_IDS, new MapSqlParameterSource("itemIds", itemIds),
+                (RowCallbackHandler) rs -> counts.put(rs.getLong("id"), rs.getLong("comment_count")));
+        return counts;
+    }
+}
@@ -2,9 +2,14 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.ItemVersionConflictException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemViewDto;
 
@@ -12,7 +17,9 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 @Validated
 @RestController
@@ -20,6 +27,8 @@ import java.util.List;
 @Slf4j
 public class ItemController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ItemService itemService;
 
     @Autowired
@@ -28,13 +37,16 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemViewDto> getAllItemsViewDtoByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public ResponseEntity<List<ItemViewDto>> getAllItemsViewDtoByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                        @Positive @RequestParam(defaultValue = "10") int size) {
-        log.info("пришел GET запрос /items с userId: {}", userId);
-        List<ItemViewDto> allItems = itemService.getAllItemsByOwner(userId, from, size);
+                                                        @Positive @RequestParam(defaultValue = "10") int size,
+                                                        @PositiveOrZero @RequestParam(required = false) Long cursor) {
+        log.info("пришел GET запрос /items с userId: {}, cursor: {}", userId, cursor);
+        List<ItemViewDto> allItems = cursor == null
+                ? itemService.getAllItemsByOwner(userId, from, size)
+                : itemService.getAllItemsByOwner(userId, cursor, size);
         log.info("отправлен ответ на GET запрос /items с userId: {} с телом: {}", userId, allItems);
-        return allItems;
+        return withNextCursor(allItems, size, ItemViewDto::getId);
     }
 
     @PostMapping
@@ -45,22 +57,27 @@ public class ItemController {
         return responseItemDto;
     }
 
+    /**
+     * Writes only the fields present in the body. With an {@code If-Match} header carrying the ETag from
+     * a previous response the update is applied only if the item has not changed since, otherwise 412.
+     */
     @PatchMapping(value = "/{itemId}")
-    public ItemDto itemDtoUpdateResponse(@RequestHeader("X-Sharer-User-Id") Long userId,
-                          @RequestBody ItemDto itemDto,
-                          @PathVariable Long itemId) {
-        log.info("пришел PATCH запрос /items с userId: {} и itemDto: {}", userId, itemDto);
-        ItemDto responseItemDto = itemService.update(itemDto, itemId, userId);
-        log.info("отправлен ответ на POST запрос /items с userId: {} и itemDto: {} с телом: {}", userId, itemDto, responseItemDto);
-        return itemService.update(itemDto, itemId, userId);
+    public ResponseEntity<ItemDto> itemDtoUpdateResponse(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @RequestBody ItemDto itemDto,
+                                                         @PathVariable Long itemId) {
+        log.info("пришел PATCH запрос /items с userId: {}, If-Match: {} и itemDto: {}", userId, ifMatch, itemDto);
+        ItemDto responseItemDto = itemService.update(itemDto, itemId, userId, parseIfMatch(ifMatch));
+        log.info("отправлен ответ на PATCH запрос /items с userId: {} и itemDto: {} с телом: {}", userId, itemDto, responseItemDto);
+        return withETag(responseItemDto, responseItemDto.getVersion());
     }
 
     @GetMapping("/{itemId}")
-    public ItemViewDto findItemViewDtoByIdResponse(@PathVariable Long itemId, @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("пришел PATCH запрос /items/:itemId с itemId: {}", itemId);
+    public ResponseEntity<ItemViewDto> findItemViewDtoByIdResponse(@PathVariable Long itemId, @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("пришел GET запрос /items/:itemId с itemId: {}", itemId);
         ItemViewDto responseItemDto = itemService.findItemById(itemId, userId);
-        log.info("отправлен ответ на PATCH запрос /items/:itemId с itemId: {} и с телом: {}", itemId, responseItemDto);
-        return responseItemDto;
+        log.info("отправлен ответ на GET запрос /items/:itemId с itemId: {} и с телом: {}", itemId, responseItemDto);
+        return withETag(responseItemDto, responseItemDto.getVersion());
     }
 
     @GetMapping(value = "/search")
@@ -73,6 +90,16 @@ public class ItemController {
         return responseListItemDto;
     }
 
+    @GetMapping(value = "/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> findCommentsResponse(@PathVariable Long itemId,
+                                                                 @Positive @RequestParam(defaultValue = "10") int size,
+                                                                 @Positive @RequestParam(required = false) Long cursor) {
+        log.info("пришел GET запрос /items/{itemId}/comments с itemId: {}, cursor: {}", itemId, cursor);
+        List<CommentDto> comments = itemService.findComments(itemId, cursor, size);
+        log.info("отправлен ответ на GET запрос /items/{itemId}/comments с itemId: {} с телом: {}", itemId, comments);
+        return withNextCursor(comments, size, CommentDto::getId);
+    }
+
     @PostMapping(value = "/{itemId}/comment")
     public CommentDto addCommentResponse(@PathVariable Long itemId,
                                  @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -82,4 +109,53 @@ public class ItemController {
         log.info("отправлен ответ на POST запрос {itemId}/comment с itemId: {} и userId: {} с телом: {}", itemId, commentDto, responseCommentDto);
         return responseCommentDto;
     }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto checkItemAvailabilityResponse(@PathVariable Long itemId,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("пришел GET запрос /items/{itemId}/availability с itemId: {}, from: {}, to: {}", itemId, from, to);
+        ItemAvailabilityDto availabilityDto = itemService.checkAvailability(itemId, from, to);
+        log.info("отправлен ответ на GET запрос /items/{itemId}/availability с itemId: {} с телом: {}", itemId, availabilityDto);
+        return availabilityDto;
+    }
+
+    /**
+     * Returns the page and, when it is full, the id of its last element as the cursor of the next page.
+     */
+    static <T> ResponseEntity<List<T>> withNextCursor(List<T> page, int size, Function<T, Long> id) {
+        if (page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(id.apply(page.get(page.size() - 1))))
+                .body(page);
+    }
+
+    static <T> ResponseEntity<T> withETag(T body, Long version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (version != null) {
+            response.eTag(String.valueOf(version));
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Returns the item version named by an {@code If-Match} header, or null if the header is absent or
+     * {@code *}. A header that names no version of ours can never match.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ItemVersionConflictException("If-Match " + ifMatch + " does not match the item");
+        }
+    }
 }
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
@@ -11,11 +14,27 @@ import java.util.List;
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findAllByOwnerId(Long userId, Pageable pageable);
+    @EntityGraph(attributePaths = "request")
+    @Query("select i from Item i where i.owner.id = :userId")
+    List<Item> findAllByOwnerId(@Param("userId") Long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "request")
+    @Query("select i from Item i where i.owner.id = :userId and i.id > :id order by i.id")
+    List<Item> findByOwnerIdAndIdGreaterThanOrderByIdAsc(@Param("userId") Long userId,
+                                                        @Param("id") Long id,
+                                                        Pageable pageable);
 
     List<Item> findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(String name,
                                                                              String description,
                                                                              Pageable pageable);
 
-    List<Item> getByRequestIdIn(Collection<Long> ids);
+    @Query("select i from Item i where i.request.id in :ids")
+    List<Item> getByRequestIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select case when count(u) > 0 then true else false end from User u, ItemRequest r "
+            + "where u.id = :ownerId and r.id = :requestId")
+    boolean existsOwnerAndRequest(@Param("ownerId") Long ownerId, @Param("requestId") Long requestId);
+
+    @EntityGraph(attributePaths = "request")
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Search over item names and descriptions. ItemServiceImpl reports every item change to the index,
+ * so implementations may keep their own copy of the searchable data.
+ */
+public interface ItemSearchIndex {
+
+    void index(Item item);
+
+    void remove(Long itemId);
+
+    List<ItemDto> search(String text, int from, int size);
+}
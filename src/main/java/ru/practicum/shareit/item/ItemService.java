@@ -1,18 +1,26 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemViewDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     List<ItemViewDto> getAllItemsByOwner(Long id, int from, int size);
 
+    List<ItemViewDto> getAllItemsByOwner(Long id, Long afterItemId, int size);
+
     ItemDto create(ItemDto itemDto, Long id);
 
-    ItemDto update(ItemDto itemDto, Long itemId, Long userId);
+    /**
+     * Applies the non-null fields of the dto. If {@code expectedVersion} is given and the item has moved on
+     * from it, nothing is written and ItemVersionConflictException is thrown.
+     */
+    ItemDto update(ItemDto itemDto, Long itemId, Long userId, Long expectedVersion);
 
     ItemViewDto findItemById(Long itemId, Long userId);
 
@@ -21,4 +29,12 @@ public interface ItemService {
     List<ItemDto> searchItemByText(String text, int from, int size);
 
     CommentDto addComment(CommentDto commentDto, Long itemId, Long userId);
+
+    /**
+     * A page of the item's comments, newest first, starting after the comment with id {@code beforeCommentId}
+     * or from the newest one if it is null. Item views carry only the first such page.
+     */
+    List<CommentDto> findComments(Long itemId, Long beforeCommentId, int size);
+
+    ItemAvailabilityDto checkAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
@@ -4,9 +4,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingMapper;
@@ -15,17 +17,18 @@ import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.exception.BusinessObjectNotFoundException;
+import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
-import ru.practicum.shareit.user.dto.UserMapper;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -37,60 +40,66 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
+    static final int INLINE_COMMENTS = 10;
+
     private final ItemRepository repository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestService itemRequestService;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemSearchIndex searchIndex;
+    private final CommentEligibilityCache eligibilityCache;
+    private final ItemCommentCounts commentCounts;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
 
     @Override
     public List<ItemViewDto> getAllItemsByOwner(Long id, int from, int size) {
         UserDto owner = userService.findUserById(id);
-        Pageable pageRequest = PageRequest.of(from, size);
-        Map<Long, Item> itemMap = repository.findAllByOwnerId(id, pageRequest)
-                .stream()
-                .collect(Collectors.toMap(Item::getId, Function.identity()));
-
-        Map<Long, List<BookingViewDto>> bookingMap = bookingRepository.findByItemIdIn(itemMap.keySet())
-                .stream()
-                .map(BookingMapper::toBookingViewDto)
-                .collect(Collectors.groupingBy(BookingViewDto::getItemId));
-
-        Map<Long, List<CommentDto>> commentMap = commentRepository.findByItemIdIn(itemMap.keySet())
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.groupingBy(CommentDto::getItemId));
+        Pageable pageRequest = PageRequest.of(from / size, size, Sort.by("id"));
+        return toItemViewsForOwner(repository.findAllByOwnerId(id, pageRequest));
+    }
 
-        return itemMap.values()
-                .stream()
-                .map(item -> ItemMapper.toItemViewForOwnerDto(item,
-                        bookingMap.getOrDefault(item.getId(), Collections.emptyList()),
-                        commentMap.getOrDefault(item.getId(), Collections.emptyList())
-                ))
-                .collect(Collectors.toList());
+    @Override
+    public List<ItemViewDto> getAllItemsByOwner(Long id, Long afterItemId, int size) {
+        UserDto owner = userService.findUserById(id);
+        return toItemViewsForOwner(repository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(id, afterItemId,
+                PageRequest.of(0, size)));
     }
 
     @Override
     @Transactional
     public ItemDto create(ItemDto itemDto, Long id) {
-        UserDto userDto = userService.findUserById(id);
         Item item = ItemMapper.toItem(itemDto);
-        item.setOwner(UserMapper.toUser(userDto));
-        if (itemDto.getRequestId() != null) {
-            ItemRequest itemRequest = itemRequestService.findRequestById(itemDto.getRequestId());
-            item.setRequest(itemRequest);
+        if (itemDto.getRequestId() == null) {
+            item.setOwner(userService.getReference(id));
+        } else {
+            // a single query proves that both exist, the checked lookups only run to report which one is missing
+            if (!repository.existsOwnerAndRequest(id, itemDto.getRequestId())) {
+                userService.getReference(id);
+                itemRequestService.getReference(itemDto.getRequestId());
+            }
+            item.setOwner(userRepository.getReferenceById(id));
+            item.setRequest(itemRequestRepository.getReferenceById(itemDto.getRequestId()));
         }
-        return ItemMapper.toItemDto(repository.save(item));
+        Item savedItem = repository.save(item);
+        searchIndex.index(savedItem);
+        return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
     @Transactional
-    public ItemDto update(ItemDto itemDto, Long itemId, Long userId) {
+    public ItemDto update(ItemDto itemDto, Long itemId, Long userId, Long expectedVersion) {
         UserDto userDto = userService.findUserById(userId);
         Item itemToUpdate = findItemByIdFromRepository(itemId);
         if (!itemToUpdate.getOwner().getId().equals(userId)) {
             throw new NotOwnerForbiddenException("User is not the owner of an item");
         }
+        if (expectedVersion != null && !expectedVersion.equals(itemToUpdate.getVersion())) {
+            throw new ItemVersionConflictException(String.format("Item with id %d is at version %d, not %d",
+                    itemId, itemToUpdate.getVersion(), expectedVersion));
+        }
 
         boolean updated = false;
         if (itemDto.getName() != null) {
@@ -106,7 +115,20 @@ public class ItemServiceImpl implements ItemService {
             updated = true;
         }
         if (updated) {
-            return ItemMapper.toItemDto(repository.save(itemToUpdate));
+            // the item is managed, so dirty checking writes only the changed columns; flushing here
+            // bumps the version before it is returned
+            try {
+                repository.flush();
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (expectedVersion == null) {
+                    throw e;
+                }
+                // a conditional update that lost the race fails its precondition just like a stale If-Match
+                throw new ItemVersionConflictException(String.format("Item with id %d was modified after version %d",
+                        itemId, expectedVersion));
+            }
+            searchIndex.index(itemToUpdate);
+            return ItemMapper.toItemDto(itemToUpdate);
         }
         log.warn("update of item with id {} failed", itemId);
         throw new ItemValidationException("Unable to update empty parameters of item");
@@ -116,29 +138,45 @@ public class ItemServiceImpl implements ItemService {
     public ItemViewDto findItemById(Long itemId, Long userId) {
         UserDto userDto = userService.findUserById(userId);
         Item item = findItemByIdFromRepository(itemId);
-        List<CommentDto> comments = commentRepository.findAllByItemId(itemId)
+        List<CommentDto> comments = commentRepository
+                .findByItemIdOrderByIdDesc(itemId, PageRequest.of(0, INLINE_COMMENTS))
                 .stream()
                 .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
-
-        List<BookingViewDto> bookings = bookingRepository.findByItemId(itemId)
-                .stream()
-                .filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED))
-                .map(BookingMapper::toBookingViewDto)
-                .collect(Collectors.toList());
+        long commentCount = comments.size() < INLINE_COMMENTS
+                ? comments.size()
+                : commentCounts.findByItemIdIn(List.of(itemId)).getOrDefault(itemId, (long) comments.size());
 
         if (userId.equals(item.getOwner().getId())) {
-            return ItemMapper.toItemViewForOwnerDto(item,
-                    bookings,
-                    comments);
+            List<BookingViewDto> bookings = bookingRepository
+                    .findLastAndNextByItemIdIn(List.of(itemId), BookingStatus.APPROVED, LocalDateTime.now())
+                    .stream()
+                    .map(BookingMapper::toBookingViewDto)
+                    .collect(Collectors.toList());
+            return ItemMapper.toItemViewForOwnerDto(item, bookings, comments, commentCount);
+        }
+        return ItemMapper.toItemViewForBookerDto(item, comments, commentCount);
+    }
+
+    @Override
+    public List<CommentDto> findComments(Long itemId, Long beforeCommentId, int size) {
+        Pageable pageRequest = PageRequest.of(0, size);
+        List<Comment> comments = beforeCommentId == null
+                ? commentRepository.findByItemIdOrderByIdDesc(itemId, pageRequest)
+                : commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(itemId, beforeCommentId, pageRequest);
+        if (comments.isEmpty() && !repository.existsById(itemId)) {
+            throw new BusinessObjectNotFoundException("Item was not found");
         }
-        return ItemMapper.toItemViewForBookerDto(item, comments);
+        return comments.stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList());
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
         repository.deleteById(id);
+        searchIndex.remove(id);
     }
 
     @Override
@@ -146,33 +184,87 @@ public class ItemServiceImpl implements ItemService {
         if (text.isEmpty() || text.isBlank()) {
             return new ArrayList<>();
         }
-        Pageable pageRequest = PageRequest.of(from, size);
-        return ItemMapper.mapToItemDto(repository.findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(text,
-                text, pageRequest));
+        return searchIndex.search(text, from, size);
     }
 
+    /**
+     * An approved past booking of the item by the user proves that the item exists, so on success the item
+     * is only referenced. Its existence is checked separately only to tell a missing item from a missing booking.
+     */
     @Transactional
     @Override
     public CommentDto addComment(CommentDto commentDto, Long itemId, Long userId) {
         LocalDateTime commentCreated = LocalDateTime.now();
-        Item item = findItemByIdFromRepository(itemId);
-        User user = UserMapper.toUser(userService.findUserById(userId));
-        List<Booking> bookings = bookingRepository.findByBookerIdAndItemIdAndEndBefore(userId, itemId, commentCreated);
-        bookings = bookings
-                .stream()
-                .filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED))
-                .collect(Collectors.toList());
+        User author = userService.getUser(userId);
+        boolean booked = eligibilityCache.isEligible(userId, itemId)
+                || bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(userId, itemId,
+                BookingStatus.APPROVED, commentCreated);
 
-        if (!bookings.isEmpty()) {
+        if (booked) {
+            eligibilityCache.markEligible(userId, itemId);
             Comment comment = CommentMapper.toComment(commentDto);
-            comment.setItem(item);
-            comment.setAuthor(user);
+            comment.setItem(repository.getReferenceById(itemId));
+            comment.setAuthor(author);
             comment.setCreated(commentCreated);
-            return CommentMapper.toCommentDto(commentRepository.save(comment));
+            Comment savedComment = commentRepository.save(comment);
+            commentCounts.increment(itemId);
+            return CommentMapper.toCommentDto(savedComment);
+        }
+        if (!repository.existsById(itemId)) {
+            throw new BusinessObjectNotFoundException("Item was not found");
         }
         throw new CommentValidationException("User cannot add comment to an item without booking");
     }
 
+    @Override
+    public ItemAvailabilityDto checkAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BookingValidationException("Unable to check availability with end time not after start time");
+        }
+        Item item = findItemByIdFromRepository(itemId);
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .available(item.getAvailable() && !availabilityIndex.overlaps(itemId, from, to))
+                .build();
+    }
+
+    private List<ItemViewDto> toItemViewsForOwner(List<Item> items) {
+        Map<Long, Item> itemMap = items.stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity(), (first, second) -> first, LinkedHashMap::new));
+
+        Map<Long, List<BookingViewDto>> bookingMap = bookingRepository
+                .findLastAndNextByItemIdIn(itemMap.keySet(), BookingStatus.APPROVED, LocalDateTime.now())
+                .stream()
+                .map(BookingMapper::toBookingViewDto)
+                .collect(Collectors.groupingBy(BookingViewDto::getItemId));
+
+        Map<Long, List<CommentDto>> commentMap = commentRepository
+                .findLatestByItemIdIn(itemMap.keySet(), INLINE_COMMENTS)
+                .stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.groupingBy(CommentDto::getItemId));
+
+        // an item with fewer comments than fit inline has them all in the map, only full ones need the counter
+        Map<Long, Long> countMap = commentCounts.findByItemIdIn(commentMap.entrySet()
+                .stream()
+                .filter(entry -> entry.getValue().size() >= INLINE_COMMENTS)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList()));
+
+        return itemMap.values()
+                .stream()
+                .map(item -> {
+                    List<CommentDto> comments = commentMap.getOrDefault(item.getId(), Collections.emptyList());
+                    return ItemMapper.toItemViewForOwnerDto(item,
+                            bookingMap.getOrDefault(item.getId(), Collections.emptyList()),
+                            comments,
+                            countMap.getOrDefault(item.getId(), (long) comments.size()));
+                })
+                .collect(Collectors.toList());
+    }
+
     private Item findItemByIdFromRepository(Long itemId) {
         return repository.findById(itemId)
                 .orElseThrow(() -> new BusinessObjectNotFoundException("Item was not found"));
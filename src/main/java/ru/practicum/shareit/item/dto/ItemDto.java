@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,4 +22,6 @@ public class ItemDto {
     @NotNull
     private Boolean available;
     private Long requestId;
+    @JsonIgnore
+    private Long version;
 }
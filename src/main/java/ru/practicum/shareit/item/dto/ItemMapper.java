@@ -15,6 +15,7 @@ public class ItemMapper {
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
+                .version(item.getVersion())
                 .build();
     }
 
@@ -36,30 +37,48 @@ public class ItemMapper {
     }
 
     public static ItemViewDto toItemViewForOwnerDto(Item item, List<BookingViewDto> bookings,
-                                                    List<CommentDto> comments) {
+                                                    List<CommentDto> comments, long commentCount) {
         LocalDateTime now = LocalDateTime.now();
+        BookingViewDto lastBooking = null;
+        BookingViewDto nextBooking = null;
+        for (BookingViewDto booking : bookings) {
+            if (booking.getStart().isBefore(now)) {
+                if (lastBooking == null || booking.getStart().isAfter(lastBooking.getStart())) {
+                    lastBooking = booking;
+                }
+            } else if (booking.getStart().isAfter(now)) {
+                if (nextBooking == null || booking.getStart().isBefore(nextBooking.getStart())) {
+                    nextBooking = booking;
+                }
+            }
+        }
+        return toItemViewForOwnerDto(item, lastBooking, nextBooking, comments, commentCount);
+    }
 
-
+    public static ItemViewDto toItemViewForOwnerDto(Item item, BookingViewDto lastBooking, BookingViewDto nextBooking,
+                                                    List<CommentDto> comments, long commentCount) {
         return ItemViewDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .lastBooking(bookings.stream().filter(b -> b.getStart().isBefore(now))
-                        .max(Comparator.comparing(BookingViewDto::getStart)).orElse(null))
-                .nextBooking(bookings.stream().filter(b -> b.getStart().isAfter(now))
-                        .min(Comparator.comparing(BookingViewDto::getStart)).orElse(null))
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
                 .comments(comments)
+                .commentCount(commentCount)
+                .version(item.getVersion())
                 .build();
     }
 
-    public static ItemViewDto toItemViewForBookerDto(Item item, List<CommentDto> comments) {
+    public static ItemViewDto toItemViewForBookerDto(Item item, List<CommentDto> comments, long commentCount) {
         return ItemViewDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .comments(comments)
+                .commentCount(commentCount)
+                .version(item.getVersion())
                 .build();
     }
 
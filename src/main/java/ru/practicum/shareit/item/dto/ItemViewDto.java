@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.dto.BookingViewDto;
@@ -17,4 +18,7 @@ public class ItemViewDto {
     private BookingViewDto lastBooking;
     private BookingViewDto nextBooking;
     private List<CommentDto> comments;
+    private long commentCount;
+    @JsonIgnore
+    private Long version;
 }
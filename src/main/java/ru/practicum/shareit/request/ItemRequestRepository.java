@@ -2,6 +2,8 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,7 +11,9 @@ import java.util.List;
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findByRequesterId(Long requesterId);
+    @Query("select r from ItemRequest r where r.requester.id = :requesterId")
+    List<ItemRequest> findByRequesterId(@Param("requesterId") Long requesterId);
 
-    List<ItemRequest> findByRequesterIdNot(Long requesterId, Pageable pageable);
+    @Query("select r from ItemRequest r where r.requester.id <> :requesterId")
+    List<ItemRequest> findByRequesterIdNot(@Param("requesterId") Long requesterId, Pageable pageable);
 }
@@ -17,4 +17,9 @@ public interface ItemRequestService {
     ItemRequestViewDto getItemRequest(Long userId, Long requestId);
 
     ItemRequest findRequestById(Long itemRequestId);
+
+    /**
+     * Returns an uninitialized reference to an existing request, to be set as an association of a new item.
+     */
+    ItemRequest getReference(Long itemRequestId);
 }
@@ -19,6 +19,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserMapper;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
@@ -35,13 +36,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository repository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Override
     @Transactional
     public ItemRequestDto create(ItemRequestInDto itemRequestInDto, Long userId) {
-        User user = UserMapper.toUser(userService.findUserById(userId));
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestInDto);
-        itemRequest.setRequester(user);
+        itemRequest.setRequester(userService.getReference(userId));
         itemRequest.setCreated(LocalDateTime.now());
         return ItemRequestMapper.toItemRequestDto(repository.save(itemRequest));
     }
@@ -93,6 +94,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return repository.findById(itemRequestId).orElseThrow(() -> new ItemRequestNotFoundException("Item was not found"));
     }
 
+    @Override
+    public ItemRequest getReference(Long itemRequestId) {
+        if (!entityManagerFactory.getCache().contains(ItemRequest.class, itemRequestId)
+                && !repository.existsById(itemRequestId)) {
+            throw new ItemRequestNotFoundException("Item was not found");
+        }
+        return repository.getReferenceById(itemRequestId);
+    }
+
     private Map<Long, List<ItemForRequestDto>> getItemsByRequestIds(Collection<Long> requestIds) {
         List<Item> items = itemRepository.getByRequestIdIn(requestIds);
         return items.stream()
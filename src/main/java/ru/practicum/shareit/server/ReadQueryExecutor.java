@@ -0,0 +1,69 @@
+package ru.practicum.shareit.server;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the queries behind the async read API on a fixed pool sized to the JDBC connection pool, so the
+ * request thread is released while the query waits for a connection and the database. Queries beyond the
+ * queue capacity are rejected with a {@link java.util.concurrent.RejectedExecutionException} instead of
+ * piling up. The pool size is read from the {@link HikariDataSource}, so it follows whatever sized the
+ * connection pool, including the virtual-thread mode; {@code shareit.read-api.threads} overrides it.
+ * A data source without a Hikari pool, such as an embedded test database, gets Hikari's default size.
+ */
+@Component
+public class ReadQueryExecutor {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public ReadQueryExecutor(MeterRegistry meterRegistry, DataSource dataSource,
+                             @Value("${shareit.read-api.threads:0}") int threads,
+                             @Value("${shareit.read-api.queue-capacity:1000}") int queueCapacity) throws SQLException {
+        this(meterRegistry, threads > 0 ? threads : poolSize(dataSource), queueCapacity);
+    }
+
+    ReadQueryExecutor(MeterRegistry meterRegistry, int threads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "read-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gauge("shareit.read.queries.queue.size", queue, Collection::size);
+    }
+
+    private static int poolSize(DataSource dataSource) throws SQLException {
+        return dataSource.isWrapperFor(HikariDataSource.class)
+                ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+                : DEFAULT_POOL_SIZE;
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+}
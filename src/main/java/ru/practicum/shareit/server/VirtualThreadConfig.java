@@ -0,0 +1,68 @@
+package ru.practicum.shareit.server;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat request handling on virtual threads when {@code shareit.server.threads=virtual}. The application
+ * is built for Java 11, so the executor is looked up reflectively and startup fails on a runtime older than 21.
+ * With a thread per request the JDBC pool becomes the only limit on concurrent database work, so in this mode
+ * the Hikari pool is sized by {@code shareit.server.virtual-threads.jdbc-pool-size}, which should match what the
+ * database can serve rather than the number of Tomcat threads.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "shareit.server.threads", havingValue = "virtual")
+public class VirtualThreadConfig {
+
+    @Bean
+    public ExecutorService virtualThreadRequestExecutor() {
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public static BeanPostProcessor virtualThreadJdbcPoolSizer(
+            @Value("${shareit.server.virtual-threads.jdbc-pool-size}") int jdbcPoolSize) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    applyPoolSize((HikariDataSource) bean, jdbcPoolSize);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadRequestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadRequestExecutor);
+    }
+
+    static void applyPoolSize(HikariDataSource dataSource, int jdbcPoolSize) {
+        dataSource.setMaximumPoolSize(jdbcPoolSize);
+        log.info("запросы обрабатываются на виртуальных потоках, пул JDBC ограничен {} соединениями", jdbcPoolSize);
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("shareit.server.threads=virtual requires Java 21 or newer, running on "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create the virtual thread executor", e);
+        }
+    }
+}
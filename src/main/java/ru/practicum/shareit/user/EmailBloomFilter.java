@@ -0,0 +1,104 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Optional Bloom filter of registered emails. A negative answer means the email is certainly not taken,
+ * so the database lookup can be skipped. Emails of deleted users stay in the filter and only cost
+ * a database check. Until the filter is loaded, and when it is disabled, every email is reported
+ * as possibly taken.
+ */
+@Component
+@Slf4j
+public class EmailBloomFilter {
+
+    private static final int LOAD_BATCH_SIZE = 10000;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final UserRepository repository;
+    private final boolean enabled;
+    private final int bitCount;
+    private final int hashCount;
+    private final AtomicLongArray bits;
+    private volatile boolean loaded;
+
+    public EmailBloomFilter(UserRepository repository,
+                            @Value("${shareit.users.email-filter.enabled:false}") boolean enabled,
+                            @Value("${shareit.users.email-filter.expected-insertions:1000000}") int expectedInsertions,
+                            @Value("${shareit.users.email-filter.false-positive-probability:0.01}") double fpp) {
+        this.repository = repository;
+        this.enabled = enabled;
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.max(Long.SIZE, Math.min(optimalBits, Integer.MAX_VALUE - Long.SIZE));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray(enabled ? (bitCount + Long.SIZE - 1) / Long.SIZE : 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long lastId = 0;
+        long count = 0;
+        List<UserEmailView> batch;
+        do {
+            batch = repository.findEmailsByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (UserEmailView user : batch) {
+                put(user.getEmail());
+                lastId = user.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        loaded = true;
+        log.info("email bloom filter was loaded with {} emails", count);
+    }
+
+    public boolean mightContain(String email) {
+        if (!enabled || !loaded) {
+            return true;
+        }
+        long hash = hash(email);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get(bit / Long.SIZE) & (1L << (bit % Long.SIZE))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String email) {
+        if (!enabled) {
+            return;
+        }
+        long hash = hash(email);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            long mask = 1L << (bit % Long.SIZE);
+            bits.getAndAccumulate(bit / Long.SIZE, mask, (current, added) -> current | added);
+        }
+    }
+
+    private static long hash(String email) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < email.length(); i++) {
+            hash ^= email.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
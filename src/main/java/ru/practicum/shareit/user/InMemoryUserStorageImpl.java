@@ -2,17 +2,25 @@ package ru.practicum.shareit.user;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.exception.EmailConflictException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Thread-safe user storage. Email uniqueness is kept by an index of user ids by email: an email is claimed
+ * with {@code putIfAbsent} before the user is stored and released only by the user that holds it, so two
+ * concurrent requests can never end up with the same email.
+ * Not used by the services, which are backed by the database; there is no database-free profile.
+ */
 @Repository
 @Slf4j
 public class InMemoryUserStorageImpl implements UserStorage {
 
-    private Map<Long, User> users = new HashMap<>();
-    private Set<String> emailUniqSet = new HashSet<>();
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
     private final AtomicLong nextId = new AtomicLong();
 
     @Override
@@ -23,18 +31,30 @@ public class InMemoryUserStorageImpl implements UserStorage {
     @Override
     public User create(User user) {
         setNextId(user);
+        claimEmail(user.getEmail(), user.getId());
         users.put(user.getId(), user);
-        emailUniqSet.add(user.getEmail());
         log.info("added a new user with id {}", user.getId());
-        log.info("ПОЛЬЗОВАТЕЛЬ ДОБАВЛЕН " + user);
         return user;
     }
 
+    /**
+     * Claims the new email, stores the user and releases the email of the replaced user in one
+     * {@code compute} on the user id, so concurrent updates of the same user are applied one after another.
+     * The email is compared with the stored user, not with {@code oldUser}, which may already be stale.
+     */
     @Override
     public User update(User oldUser, User user, Long id) {
-        emailUniqSet.remove(oldUser.getEmail());
-        users.put(id, user);
-        emailUniqSet.add(user.getEmail());
+        users.compute(id, (userId, storedUser) -> {
+            if (storedUser == null) {
+                throw new UserNotFoundException("User was not found");
+            }
+            boolean emailChanged = !storedUser.getEmail().equals(user.getEmail());
+            if (emailChanged) {
+                claimEmail(user.getEmail(), userId);
+                userIdsByEmail.remove(storedUser.getEmail(), userId);
+            }
+            return user;
+        });
         return user;
     }
 
@@ -46,7 +66,9 @@ public class InMemoryUserStorageImpl implements UserStorage {
     @Override
     public void delete(Long id) {
         User deletedUser = users.remove(id);
-        emailUniqSet.remove(deletedUser.getEmail());
+        if (deletedUser != null) {
+            userIdsByEmail.remove(deletedUser.getEmail(), id);
+        }
         log.info("user with id {} was deleted", id);
     }
 
@@ -57,7 +79,14 @@ public class InMemoryUserStorageImpl implements UserStorage {
 
     @Override
     public boolean doesEmailNotExist(String email) {
-        return !emailUniqSet.contains(email);
+        return !userIdsByEmail.containsKey(email);
+    }
+
+    private void claimEmail(String email, Long userId) {
+        Long holder = userIdsByEmail.putIfAbsent(email, userId);
+        if (holder != null && !holder.equals(userId)) {
+            throw new EmailConflictException("Email " + email + " is already in use");
+        }
     }
 
     private void setNextId(User user) {
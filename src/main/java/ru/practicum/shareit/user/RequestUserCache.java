@@ -0,0 +1,73 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Users already looked up while serving the current HTTP request, keyed by id (the X-Sharer-User-Id
+ * of most requests). The map lives in the request attributes and is dropped with the request.
+ * Outside of a request nothing is cached.
+ */
+@Component
+public class RequestUserCache {
+
+    private static final String ATTRIBUTE = RequestUserCache.class.getName();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public RequestUserCache(MeterRegistry meterRegistry) {
+        this.hits = meterRegistry.counter("shareit.users.request.cache", "result", "hit");
+        this.misses = meterRegistry.counter("shareit.users.request.cache", "result", "miss");
+    }
+
+    public Optional<UserDto> find(Long userId) {
+        Map<Long, UserDto> users = users();
+        if (users == null) {
+            return Optional.empty();
+        }
+        UserDto user = users.get(userId);
+        if (user == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(user);
+    }
+
+    public void put(UserDto user) {
+        Map<Long, UserDto> users = users();
+        if (users != null) {
+            users.put(user.getId(), user);
+        }
+    }
+
+    public void evict(Long userId) {
+        Map<Long, UserDto> users = users();
+        if (users != null) {
+            users.remove(userId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Long, UserDto> users() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Long, UserDto> users = (Map<Long, UserDto>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (users == null) {
+            users = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, users, RequestAttributes.SCOPE_REQUEST);
+        }
+        return users;
+    }
+}
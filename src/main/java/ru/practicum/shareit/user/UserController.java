@@ -1,11 +1,18 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 
@@ -15,10 +22,12 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectWriter userWriter;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userWriter = objectMapper.writerFor(UserDto.class);
     }
 
     @GetMapping
@@ -27,6 +36,22 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllUsersResponse(HttpServletResponse response) throws IOException {
+        log.info("пришел GET запрос /users в формате NDJSON");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        userService.forEachUser(userDto -> {
+            try {
+                out.write(userWriter.writeValueAsBytes(userDto));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+
     @PostMapping
     public UserDto userDtoCreateResponse(@RequestBody @Valid UserDto userDto) {
         log.info("пришел POST запрос /users с телом: {}", userDto);
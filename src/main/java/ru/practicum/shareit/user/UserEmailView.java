@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user;
+
+public interface UserEmailView {
+
+    Long getId();
+
+    String getEmail();
+}
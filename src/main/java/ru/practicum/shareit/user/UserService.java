@@ -3,16 +3,29 @@ package ru.practicum.shareit.user;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
     List<UserDto> getAllUsers();
 
+    void forEachUser(Consumer<UserDto> action);
+
     UserDto create(UserDto userDto);
 
     UserDto update(UserDto userDto, Long id);
 
     UserDto findUserById(Long id);
 
+    /**
+     * Returns the managed user, for a new entity that both references the user and reads its fields.
+     */
+    User getUser(Long id);
+
+    /**
+     * Returns an uninitialized reference to an existing user, to be set as an association of a new entity.
+     */
+    User getReference(Long id);
+
     void delete(Long id);
 }
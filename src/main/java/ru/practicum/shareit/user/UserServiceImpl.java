@@ -10,8 +10,11 @@ import ru.practicum.shareit.exception.UserValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -19,10 +22,17 @@ import java.util.Objects;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
+    private final EmailBloomFilter emailFilter;
+    private final RequestUserCache userCache;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Autowired
-    public UserServiceImpl(UserRepository repository) {
+    public UserServiceImpl(UserRepository repository, EmailBloomFilter emailFilter, RequestUserCache userCache,
+                           EntityManagerFactory entityManagerFactory) {
         this.repository = repository;
+        this.emailFilter = emailFilter;
+        this.userCache = userCache;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     @Override
@@ -30,6 +40,13 @@ public class UserServiceImpl implements UserService {
         return UserMapper.mapToUserDto(repository.findAll());
     }
 
+    @Override
+    public void forEachUser(Consumer<UserDto> action) {
+        try (Stream<UserView> users = repository.streamAllByOrderByIdAsc()) {
+            users.map(UserMapper::toUserDto).forEach(action);
+        }
+    }
+
     @Override
     @Transactional
     public UserDto create(UserDto userDto) {
@@ -37,6 +54,7 @@ public class UserServiceImpl implements UserService {
             throw new UserValidationException("Email must not be null");
         }
         User user = repository.save(UserMapper.toUser(userDto));
+        emailFilter.put(user.getEmail());
         return UserMapper.toUserDto(user);
     }
 
@@ -55,7 +73,10 @@ public class UserServiceImpl implements UserService {
             updated = true;
         }
         if (updated) {
-            return UserMapper.toUserDto(repository.save(oldUser));
+            UserDto user = UserMapper.toUserDto(repository.save(oldUser));
+            emailFilter.put(user.getEmail());
+            userCache.put(user);
+            return user;
         }
         log.warn("update of user with id {} failed", id);
         throw new EmailConflictException("Unable to update user with given email");
@@ -63,17 +84,41 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto findUserById(Long id) {
-        return UserMapper.toUserDto(repository.findById(id)
-                .orElseThrow(() -> new BusinessObjectNotFoundException("User was not found")));
+        return userCache.find(id).orElseGet(() -> {
+            UserDto user = UserMapper.toUserDto(repository.findById(id)
+                    .orElseThrow(() -> new BusinessObjectNotFoundException("User was not found")));
+            userCache.put(user);
+            return user;
+        });
+    }
+
+    @Override
+    public User getUser(Long id) {
+        return repository.findById(id).orElseThrow(() -> new BusinessObjectNotFoundException("User was not found"));
+    }
+
+    /**
+     * Existence is checked in the request cache, then in the second-level cache and only then with
+     * {@code existsById}, so the user row is never loaded.
+     */
+    @Override
+    public User getReference(Long id) {
+        if (userCache.find(id).isEmpty()
+                && !entityManagerFactory.getCache().contains(User.class, id)
+                && !repository.existsById(id)) {
+            throw new BusinessObjectNotFoundException("User was not found");
+        }
+        return repository.getReferenceById(id);
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
         repository.deleteById(id);
+        userCache.evict(id);
     }
 
     private boolean doesEmailNotExist(String email) {
-        return !repository.findAll().stream().anyMatch(user -> user.getEmail().equals(email));
+        return !emailFilter.mightContain(email) || !repository.existsByEmail(email);
     }
 }
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.user;
+
+public interface UserView extends UserEmailView {
+
+    String getName();
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.dto;
 
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserView;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -16,6 +17,14 @@ public class UserMapper {
                 .build();
     }
 
+    public static UserDto toUserDto(UserView user) {
+        return UserDto.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+
     public static List<UserDto> mapToUserDto(Collection<User> users) {
         List<UserDto> dtos = new ArrayList<>();
         for (User user : users) {
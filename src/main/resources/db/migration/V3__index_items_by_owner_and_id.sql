@@ -0,0 +1,3 @@
+DROP INDEX IF EXISTS idx_items_owner;
+
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (user_id, id);
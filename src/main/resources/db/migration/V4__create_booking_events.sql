@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS booking_events (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    type varchar(10) NOT NULL,
+    actor_id BIGINT NOT NULL,
+    created_date TIMESTAMP WITHOUT TIME ZONE NOT NULL);
+
+CREATE INDEX IF NOT EXISTS idx_booking_events_booking ON booking_events (booking_id, created_date);
@@ -0,0 +1,152 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs each repository finder, takes the SQL Hibernate generated for it and checks with EXPLAIN which index
+ * H2 uses. H2 indexes every foreign key itself and prefers that index over a composite one with the same
+ * leading column unless a condition on the second column narrows the range, so those finders are expected
+ * on the foreign key index. H2 only reads rows in index order when the ORDER BY starts with the first index
+ * column, so the start_date DESC orderings behind an equality on booker or item are always sorted after the lookup.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.SchemaIndexTest$RecordingStatementInspector")
+public class SchemaIndexTest {
+
+    private static final Pageable START_DESC = PageRequest.of(0, 10,
+            Sort.by("start").descending().and(Sort.by("id").descending()));
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Test
+    void bookerBookingQueriesUseIndexes() {
+        assertUsesIndex(() -> bookingRepository.findAllByBookerId(1L, START_DESC), "FK_BOOKINGS_TO_USERS_INDEX");
+        assertUsesIndex(() -> bookingRepository.findAllByBookerIdAndStatus(1L, BookingStatus.WAITING, START_DESC),
+                "FK_BOOKINGS_TO_USERS_INDEX");
+        assertUsesIndex(() -> bookingRepository.findAllByBookerIdAndEndBefore(1L, NOW, START_DESC),
+                "FK_BOOKINGS_TO_USERS_INDEX");
+        assertUsesIndex(() -> bookingRepository.findAllByBookerIdAndStartAfter(1L, NOW, START_DESC),
+                "IDX_BOOKINGS_BOOKER_START: BOOKER_ID = ?1\n        AND START_DATE > ?2");
+        assertUsesIndex(() -> bookingRepository.findByBookerIdAndStartBeforeAndEndAfter(1L, NOW, NOW, START_DESC),
+                "IDX_BOOKINGS_BOOKER_START: BOOKER_ID = ?1\n        AND START_DATE < ?2");
+        assertUsesIndex(() -> bookingRepository.findByBookerIdBeforeCursor(1L, NOW, 5L, FIRST_PAGE),
+                "FK_BOOKINGS_TO_USERS_INDEX");
+        assertUsesIndex(() -> bookingRepository.findFutureByBookerIdBeforeCursor(1L, NOW, NOW, 5L, FIRST_PAGE),
+                "IDX_BOOKINGS_BOOKER_START");
+        assertUsesIndex(() -> bookingRepository.findCurrentByBookerIdBeforeCursor(1L, NOW, NOW, 5L, FIRST_PAGE),
+                "IDX_BOOKINGS_BOOKER_START");
+    }
+
+    @Test
+    void ownerBookingQueriesUseIndexes() {
+        String ownerItems = "FK_BOOKINGS_TO_ITEMS_INDEX_A: ITEM_ID IN(SELECT DISTINCT";
+        assertUsesIndex(() -> bookingRepository.findByItemOwnerId(1L, START_DESC), ownerItems);
+        assertUsesIndex(() -> bookingRepository.findByItemOwnerIdAndStatus(1L, BookingStatus.WAITING, START_DESC),
+                ownerItems);
+        assertUsesIndex(() -> bookingRepository.findByItemOwnerIdAndEndBefore(1L, NOW, START_DESC), ownerItems);
+        assertUsesIndex(() -> bookingRepository.findByItemOwnerIdAndStartAfter(1L, NOW, START_DESC), ownerItems);
+        assertUsesIndex(() -> bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfter(1L, NOW, NOW,
+                START_DESC), ownerItems);
+        assertUsesIndex(() -> bookingRepository.findByItemOwnerIdBeforeCursor(1L, NOW, 5L, FIRST_PAGE), ownerItems);
+        assertUsesIndex(() -> bookingRepository.findCurrentByItemOwnerIdBeforeCursor(1L, NOW, NOW, 5L, FIRST_PAGE),
+                ownerItems);
+        assertUsesIndex(() -> bookingRepository.updateStatusIfWaiting(1L, 1L, BookingStatus.APPROVED), ownerItems);
+        assertUsesIndex(() -> bookingRepository.summarizeByItemOwnerId(1L, NOW, NOW), "FK_ITEMS_TO_USERS_INDEX");
+    }
+
+    @Test
+    void itemBookingQueriesUseIndexes() {
+        String plan = explain(() -> bookingRepository.findLastAndNextByItemIdIn(Set.of(1L, 2L),
+                BookingStatus.APPROVED, NOW));
+        assertTrue(plan.contains("IDX_BOOKINGS_ITEM_STATUS_START: START_DATE < ?"), plan);
+        assertTrue(plan.contains("IDX_BOOKINGS_ITEM_STATUS_START: START_DATE > ?"), plan);
+
+        assertUsesIndex(() -> bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(1L, 2L,
+                BookingStatus.APPROVED, NOW), "IDX_BOOKINGS_BOOKER_ITEM_STATUS_END");
+    }
+
+    @Test
+    void itemRepositoryQueriesUseIndexes() {
+        assertUsesIndex(() -> itemRepository.findAllByOwnerId(1L, PageRequest.of(0, 10, Sort.by("id"))),
+                "FK_ITEMS_TO_USERS_INDEX");
+        assertUsesIndex(() -> itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(1L, 5L, FIRST_PAGE),
+                "IDX_ITEMS_OWNER_ID: USER_ID = ?1\n        AND ID > ?2");
+        assertUsesIndex(() -> itemRepository.getByRequestIdIn(Set.of(1L, 2L)), "IDX_ITEMS_REQUEST");
+    }
+
+    @Test
+    void commentRepositoryQueriesUseIndexes() {
+        assertUsesIndex(() -> commentRepository.findByItemIdOrderByIdDesc(1L, FIRST_PAGE),
+                "FK_COMMENTS_TO_ITEMS_INDEX");
+        assertUsesIndex(() -> commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(1L, 5L, FIRST_PAGE),
+                "IDX_COMMENTS_ITEM_ID: ITEM_ID = ?1\n        AND ID < ?2");
+        assertUsesIndex(() -> commentRepository.findLatestByItemIdIn(Set.of(1L, 2L), 10),
+                "FK_COMMENTS_TO_ITEMS_INDEX");
+    }
+
+    @Test
+    void itemRequestRepositoryQueriesUseIndexes() {
+        assertUsesIndex(() -> itemRequestRepository.findByRequesterId(1L), "FK_REQUESTS_TO_USERS_INDEX");
+
+        String plan = explain(() -> itemRequestRepository.findByRequesterIdNot(1L,
+                PageRequest.of(0, 10, Sort.by("created").descending())));
+        assertTrue(plan.contains("IDX_REQUESTS_CREATED"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    private void assertUsesIndex(Runnable finder, String index) {
+        String plan = explain(finder);
+        assertTrue(plan.contains("PUBLIC." + index), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    private String explain(Runnable finder) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        finder.run();
+        String sql = RecordingStatementInspector.STATEMENTS.get(RecordingStatementInspector.STATEMENTS.size() - 1);
+        int parameters = sql.length() - sql.replace("?", "").length();
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, new Object[parameters]);
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.server.ReadQueryExecutor;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AsyncBookingController.class)
+@Import({ReadQueryExecutor.class, SimpleMeterRegistry.class})
+public class AsyncBookingControllerTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MockMvc mvc;
+    @MockBean
+    private BookingService bookingService;
+    @MockBean
+    private DataSource dataSource;
+    private BookingResponse bookingOutDto;
+
+    @BeforeEach
+    public void createBookings() {
+        UserDto user = UserDto.builder().id(2L).name("user").email("user@mail.ru").build();
+        ItemDto item = new ItemDto(1L, "item", "description", true, null, null);
+        bookingOutDto = new BookingResponse(1L, LocalDateTime.now().plusHours(1),
+                LocalDateTime.now().plusDays(1), BookingStatus.WAITING, user, item);
+    }
+
+    @SneakyThrows
+    @Test
+    void findBookingsOfUserWhenWithoutParamsThenStatusOkAndParamIsDefault() {
+        long userId = 1L;
+        List<BookingResponse> bookings = List.of(bookingOutDto);
+        when(bookingService.findBookingsOfUser(BookingState.ALL, userId, 0, 10))
+                .thenReturn(new SliceImpl<>(bookings));
+
+        MvcResult started = mvc.perform(get("/async/bookings")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String result = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(bookings), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void findBookingsOfOwnerWhenSliceHasNextThenReturnNextPageLink() {
+        long userId = 1L;
+        String nextCursor = BookingCursor.of(bookingOutDto).encode();
+        when(bookingService.findBookingsOfOwner(BookingState.ALL, userId, 0, 1))
+                .thenReturn(new SliceImpl<>(List.of(bookingOutDto), PageRequest.of(0, 1), true));
+
+        MvcResult started = mvc.perform(get("/async/bookings/owner?state=ALL&size=1")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, nextCursor))
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "<http://localhost/async/bookings/owner?state=ALL&size=1&cursor=" + nextCursor
+                                + ">; rel=\"next\""));
+    }
+
+    @SneakyThrows
+    @Test
+    void findBookingsOfOwnerWithCursorThenUseCursorQuery() {
+        long userId = 1L;
+        BookingCursor cursor = BookingCursor.of(bookingOutDto);
+        when(bookingService.findBookingsOfOwner(BookingState.ALL, userId, cursor, 10))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        MvcResult started = mvc.perform(get("/async/bookings/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("cursor", cursor.encode()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+
+        verify(bookingService).findBookingsOfOwner(BookingState.ALL, userId, cursor, 10);
+        verify(bookingService, never()).findBookingsOfOwner(any(), anyLong(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingAvailabilityIndexTest {
+
+    @Mock
+    private BookingRepository repository;
+    @InjectMocks
+    private BookingAvailabilityIndex index;
+    private LocalDateTime base;
+
+    @BeforeEach
+    public void initialize() {
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    public void tryAddWhenIntervalIsFreeThenReturnTrue() {
+        assertTrue(index.tryAdd(1L, 1L, base, base.plusHours(2)));
+        assertTrue(index.tryAdd(1L, 2L, base.plusHours(2), base.plusHours(4)));
+        assertTrue(index.tryAdd(2L, 3L, base, base.plusHours(2)));
+    }
+
+    @Test
+    public void tryAddWhenIntervalOverlapsThenReturnFalse() {
+        index.tryAdd(1L, 1L, base, base.plusHours(2));
+
+        assertFalse(index.tryAdd(1L, 2L, base.plusHours(1), base.plusHours(3)));
+        assertFalse(index.tryAdd(1L, 3L, base.minusHours(1), base.plusHours(1)));
+        assertFalse(index.tryAdd(1L, 4L, base.minusHours(1), base.plusHours(3)));
+    }
+
+    @Test
+    public void overlapsWhenLongIntervalIsHiddenInLeftSubtreeThenReturnTrue() {
+        index.add(1L, 1L, base, base.plusDays(10));
+        for (long i = 2; i < 50; i++) {
+            index.add(1L, i, base.plusHours(i), base.plusHours(i).plusMinutes(30));
+        }
+
+        assertTrue(index.overlaps(1L, base.plusDays(5), base.plusDays(6)));
+        assertFalse(index.overlaps(1L, base.plusDays(10), base.plusDays(11)));
+    }
+
+    @Test
+    public void removeThenIntervalIsReleased() {
+        index.tryAdd(1L, 1L, base, base.plusHours(2));
+
+        index.remove(1L, 1L);
+
+        assertFalse(index.overlaps(1L, base, base.plusHours(2)));
+    }
+
+    @Test
+    public void tryAddThenEndedIntervalsArePruned() {
+        LocalDateTime past = LocalDateTime.now().minusDays(10);
+        for (long i = 1; i < 50; i++) {
+            index.add(1L, i, past.plusHours(i), past.plusHours(i).plusMinutes(30));
+        }
+        index.add(1L, 50L, LocalDateTime.now().minusHours(1), base.plusHours(1));
+
+        assertTrue(index.tryAdd(1L, 51L, base.plusHours(2), base.plusHours(3)));
+
+        assertFalse(index.overlaps(1L, past.plusHours(1), past.plusHours(49)));
+        assertTrue(index.overlaps(1L, base, base.plusHours(1)));
+        assertTrue(index.overlaps(1L, base.plusHours(2), base.plusHours(3)));
+    }
+
+    @Test
+    public void rebuildThenLoadsBlockingBookings() {
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        User user = new User(2L, "user", "user@mail.ru");
+        Item item = new Item(1L, "item", "description", true, owner, null);
+        Booking booking = new Booking(1L, base, base.plusHours(2), item, user, BookingStatus.APPROVED);
+        when(repository.findAllByStatusInAndEndAfter(any(), any())).thenReturn(List.of(booking));
+
+        index.rebuild();
+
+        assertTrue(index.overlaps(1L, base.plusHours(1), base.plusHours(3)));
+        assertFalse(index.overlaps(1L, base.plusHours(2), base.plusHours(3)));
+    }
+
+    @Test
+    public void rebuildWhenBookingIsCreatedDuringRebuildThenKeepIt() {
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        User user = new User(2L, "user", "user@mail.ru");
+        Item item = new Item(1L, "item", "description", true, owner, null);
+        Booking committed = new Booking(1L, base, base.plusHours(2), item, user, BookingStatus.APPROVED);
+        when(repository.findAllByStatusInAndEndAfter(any(), any())).thenAnswer(invocation -> {
+            // a booking registered by a transaction that has not committed yet, so it is not in the snapshot
+            assertTrue(index.tryAdd(1L, 2L, base.plusHours(4), base.plusHours(6)));
+            return List.of(committed);
+        });
+
+        index.rebuild();
+
+        assertTrue(index.overlaps(1L, base.plusHours(1), base.plusHours(3)));
+        assertTrue(index.overlaps(1L, base.plusHours(5), base.plusHours(7)));
+        assertFalse(index.tryAdd(1L, 3L, base.plusHours(5), base.plusHours(7)));
+    }
+}
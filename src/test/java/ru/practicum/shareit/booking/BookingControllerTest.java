@@ -7,19 +7,33 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
-import ru.practicum.shareit.item.model.Item;
-
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.ItemUtilizationDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -36,8 +50,8 @@ public class BookingControllerTest {
 
     @BeforeEach
     public void createBookings() {
-        User user = new User(2L, "user", "user@mail.ru");
-        Item item = new Item(1L, "item", "description", true, null, null);
+        UserDto user = UserDto.builder().id(2L).name("user").email("user@mail.ru").build();
+        ItemDto item = new ItemDto(1L, "item", "description", true, null, null);
         bookingDto = new BookingRequest(1L, 1L, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusDays(1),
                 null);
         bookingOutDto = new BookingResponse(1L, LocalDateTime.now().plusHours(1),
@@ -50,7 +64,7 @@ public class BookingControllerTest {
         long userId = 1L;
         List<BookingResponse> bookings = List.of(bookingOutDto);
         when(bookingService.findBookingsOfUser(BookingState.ALL, userId, 0, 10))
-                .thenReturn(bookings);
+                .thenReturn(new SliceImpl<>(bookings));
 
         String result = mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId))
@@ -111,7 +125,7 @@ public class BookingControllerTest {
         long userId = 1L;
         List<BookingResponse> bookings = List.of(bookingOutDto);
         when(bookingService.findBookingsOfUser(BookingState.WAITING, userId, 0, 10))
-                .thenReturn(bookings);
+                .thenReturn(new SliceImpl<>(bookings));
 
         String result = mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
@@ -133,7 +147,7 @@ public class BookingControllerTest {
         long userId = 1L;
         List<BookingResponse> bookings = List.of(bookingOutDto);
         when(bookingService.findBookingsOfOwner(BookingState.ALL, userId, 0, 10))
-                .thenReturn(bookings);
+                .thenReturn(new SliceImpl<>(bookings));
 
         String result = mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId))
@@ -194,7 +208,7 @@ public class BookingControllerTest {
         long userId = 1L;
         List<BookingResponse> bookings = List.of(bookingOutDto);
         when(bookingService.findBookingsOfOwner(BookingState.WAITING, userId, 0, 10))
-                .thenReturn(bookings);
+                .thenReturn(new SliceImpl<>(bookings));
 
         String result = mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -210,6 +224,38 @@ public class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookings), result);
     }
 
+    @SneakyThrows
+    @Test
+    void findOwnerSummaryWhenWithoutParamsThenDaysIsDefault() {
+        long userId = 1L;
+        Map<BookingState, Long> counts = new EnumMap<>(BookingState.class);
+        counts.put(BookingState.ALL, 1L);
+        counts.put(BookingState.WAITING, 1L);
+        BookingSummaryDto summary = new BookingSummaryDto(30, counts,
+                List.of(new ItemUtilizationDto(1L, "item", 1, 0.5)));
+        when(bookingService.findOwnerSummary(userId, 30)).thenReturn(summary);
+
+        String result = mvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(summary), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void findOwnerSummaryWhenDaysIsZeroThenStatusBadRequest() {
+        mvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("days", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).findOwnerSummary(anyLong(), anyInt());
+    }
+
     @SneakyThrows
     @Test
     void findBookingByIdWhenInvokeThenReturnBookingDtoFullOut() {
@@ -227,6 +273,26 @@ public class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookingOutDto), result);
     }
 
+    @SneakyThrows
+    @Test
+    void findBookingEventsWhenInvokeThenReturnEvents() {
+        long userId = 1L;
+        long bookingId = 2L;
+        List<BookingEventDto> events = List.of(
+                new BookingEventDto(1L, bookingId, BookingEventType.CREATED, 2L, LocalDateTime.now()),
+                new BookingEventDto(2L, bookingId, BookingEventType.APPROVED, userId, LocalDateTime.now()));
+        when(bookingService.findBookingEvents(bookingId, userId)).thenReturn(events);
+
+        String result = mvc.perform(get("/bookings/{bookingId}/events", bookingId)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(events), result);
+    }
+
     @SneakyThrows
     @Test
     void createBookingWhenStartDateIsNullThenReturnBadRequest() {
@@ -290,6 +356,56 @@ public class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookingOutDto), result);
     }
 
+    @SneakyThrows
+    @Test
+    void createBookingsBatchThenReturnResultPerEntry() {
+        long userId = 1;
+        List<BookingRequest> requests = List.of(bookingDto, bookingDto);
+        List<BookingBatchResult> results = List.of(
+                BookingBatchResult.builder().index(0).booking(bookingOutDto).build(),
+                BookingBatchResult.builder().index(1).error("Item is already booked for the requested period").build());
+        when(bookingService.createAll(requests, userId)).thenReturn(results);
+
+        String result = mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(results), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void createBookingsBatchWhenEntryIsInvalidThenReturnBadRequest() {
+        long userId = 1;
+        BookingRequest withoutItem = new BookingRequest(null, null, LocalDateTime.now().plusHours(1),
+                LocalDateTime.now().plusDays(1), null);
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(bookingDto, withoutItem))))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).createAll(anyList(), anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void createBookingsBatchWhenEmptyThenReturnBadRequest() {
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType("application/json")
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).createAll(anyList(), anyLong());
+    }
+
     @SneakyThrows
     @Test
     void setBookingApprovalWhenWithoutParamThenReturnStatusIs500() {
@@ -321,4 +437,67 @@ public class BookingControllerTest {
 
         assertEquals(objectMapper.writeValueAsString(bookingOutDto), result);
     }
+
+    @SneakyThrows
+    @Test
+    void findBookingsOfOwnerWhenSliceHasNextThenReturnNextCursorAndLinkHeaders() {
+        long userId = 1L;
+        List<BookingResponse> bookings = List.of(bookingOutDto);
+        String nextCursor = BookingCursor.of(bookingOutDto).encode();
+        when(bookingService.findBookingsOfOwner(BookingState.ALL, userId, 0, 1))
+                .thenReturn(new SliceImpl<>(bookings, PageRequest.of(0, 1), true));
+
+        mvc.perform(get("/bookings/owner?size=1&from=0")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, nextCursor))
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "<http://localhost/bookings/owner?size=1&cursor=" + nextCursor + ">; rel=\"next\""));
+    }
+
+    @SneakyThrows
+    @Test
+    void findBookingsOfOwnerWhenSliceIsLastThenNoNextPageHeaders() {
+        long userId = 1L;
+        List<BookingResponse> bookings = List.of(bookingOutDto);
+        when(bookingService.findBookingsOfOwner(BookingState.ALL, userId, 0, 1))
+                .thenReturn(new SliceImpl<>(bookings, PageRequest.of(0, 1), false));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("size", String.valueOf(1)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @SneakyThrows
+    @Test
+    void findBookingsOfUserWhenCursorThenUseKeysetPagination() {
+        long userId = 1L;
+        BookingCursor cursor = BookingCursor.of(bookingOutDto);
+        List<BookingResponse> bookings = List.of(bookingOutDto);
+        when(bookingService.findBookingsOfUser(BookingState.ALL, userId, cursor, 10))
+                .thenReturn(new SliceImpl<>(bookings));
+
+        String nextCursor = mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(BookingController.NEXT_CURSOR_HEADER);
+
+        verify(bookingService).findBookingsOfUser(BookingState.ALL, userId, cursor, 10);
+        assertNull(nextCursor);
+    }
+
+    @SneakyThrows
+    @Test
+    void findBookingsOfUserWhenCursorIsMalformedThenStatusBadRequest() {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingEventLogTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    private MeterRegistry meterRegistry;
+    private BookingEventLog eventLog;
+
+    @BeforeEach
+    public void initialize() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventLog = new BookingEventLog(jdbcTemplate, meterRegistry, 3, 2, Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void publishWhenQueueIsFullThenEventIsDropped() {
+        for (long i = 1; i <= 4; i++) {
+            eventLog.publish(i, BookingEventType.CREATED, 1L);
+        }
+
+        assertEquals(3, count("queued"));
+        assertEquals(1, count("dropped"));
+        assertEquals(3, meterRegistry.get("shareit.booking.events.queue.size").gauge().value());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void flushWritesQueuedEventsInBatches() {
+        for (long i = 1; i <= 3; i++) {
+            eventLog.publish(i, BookingEventType.APPROVED, 1L);
+        }
+
+        eventLog.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((Collection<Object> batch) -> batch.size() == 2),
+                eq(2), any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((Collection<Object> batch) -> batch.size() == 1),
+                eq(1), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(3, count("written"));
+        assertEquals(0, meterRegistry.get("shareit.booking.events.queue.size").gauge().value());
+    }
+
+    @Test
+    public void flushWhenInsertFailsThenEventsAreCountedAsFailed() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("database is down"));
+        eventLog.publish(1L, BookingEventType.REJECTED, 1L);
+
+        eventLog.flush();
+
+        assertEquals(1, count("failed"));
+        assertEquals(0, count("written"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("shareit.booking.events").tag("result", result).counter().count();
+    }
+}
@@ -7,6 +7,7 @@ import ru.practicum.shareit.booking.dto.BookingResponse;
 import ru.practicum.shareit.booking.dto.BookingViewDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserMapper;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,7 +28,8 @@ public class BookingMapperTest {
         assertEquals(1L, bookingOutDto.getId());
         assertEquals(BookingStatus.WAITING, bookingOutDto.getStatus());
         assertEquals(booking.getStart(), bookingOutDto.getStart());
-        assertEquals(booking.getBooker(), bookingOutDto.getBooker());
+        assertEquals(UserMapper.toUserDto(booking.getBooker()), bookingOutDto.getBooker());
+        assertEquals(item.getName(), bookingOutDto.getItem().getName());
     }
 
     @Test
@@ -44,7 +46,7 @@ public class BookingMapperTest {
         assertEquals(1L, dtos.get(0).getId());
         assertEquals(BookingStatus.WAITING, dtos.get(0).getStatus());
         assertEquals(booking.getStart(), dtos.get(0).getStart());
-        assertEquals(booking.getBooker(), dtos.get(0).getBooker());
+        assertEquals(UserMapper.toUserDto(booking.getBooker()), dtos.get(0).getBooker());
     }
 
     @Test
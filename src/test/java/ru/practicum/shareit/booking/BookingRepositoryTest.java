@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -13,9 +14,12 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -48,28 +52,31 @@ public class BookingRepositoryTest {
 
     @Test
     void findAllByBookerIdAndStatusTest() {
-        List<Booking> bookings = repository.findAllByBookerIdAndStatus(2L, BookingStatus.WAITING, pageRequest);
+        List<Booking> bookings = repository.findAllByBookerIdAndStatus(2L, BookingStatus.WAITING, pageRequest)
+                .getContent();
 
         assertEquals(1, bookings.size());
     }
 
     @Test
     void findAllByBookerIdTest() {
-        List<Booking> bookings = repository.findAllByBookerId(2L, pageRequest);
+        List<Booking> bookings = repository.findAllByBookerId(2L, pageRequest).getContent();
 
         assertEquals(1, bookings.size());
     }
 
     @Test
     void findAllByBookerIdAndEndBeforeTest() {
-        List<Booking> bookings = repository.findAllByBookerIdAndEndBefore(2L, end.plusDays(1), pageRequest);
+        List<Booking> bookings = repository.findAllByBookerIdAndEndBefore(2L, end.plusDays(1), pageRequest)
+                .getContent();
 
         assertEquals(1, bookings.size());
     }
 
     @Test
     void findAllByBookerIdAndStartAfterTest() {
-        List<Booking> bookings = repository.findAllByBookerIdAndStartAfter(2L, start.minusDays(1), pageRequest);
+        List<Booking> bookings = repository.findAllByBookerIdAndStartAfter(2L, start.minusDays(1), pageRequest)
+                .getContent();
 
         assertEquals(1, bookings.size());
     }
@@ -77,35 +84,38 @@ public class BookingRepositoryTest {
     @Test
     void findByBookerIdAndStartBeforeAndEndAfterTest() {
         List<Booking> bookings = repository.findByBookerIdAndStartBeforeAndEndAfter(2L, start.plusHours(1),
-                end.minusHours(1), pageRequest);
+                end.minusHours(1), pageRequest).getContent();
 
         assertEquals(1, bookings.size());
     }
 
     @Test
     void findByItemOwnerIdTest() {
-        List<Booking> bookings = repository.findByItemOwnerId(1L, pageRequest);
+        List<Booking> bookings = repository.findByItemOwnerId(1L, pageRequest).getContent();
 
         assertEquals(1, bookings.size());
     }
 
     @Test
     void findByItemOwnerIdAndStatusTest() {
-        List<Booking> bookings = repository.findByItemOwnerIdAndStatus(1L, BookingStatus.WAITING, pageRequest);
+        List<Booking> bookings = repository.findByItemOwnerIdAndStatus(1L, BookingStatus.WAITING, pageRequest)
+                .getContent();
 
         assertEquals(1, bookings.size());
     }
 
     @Test
     void findByItemOwnerIdAndEndBeforeTest() {
-        List<Booking> bookings = repository.findByItemOwnerIdAndEndBefore(1L, end.plusDays(1), pageRequest);
+        List<Booking> bookings = repository.findByItemOwnerIdAndEndBefore(1L, end.plusDays(1), pageRequest)
+                .getContent();
 
         assertEquals(1, bookings.size());
     }
 
     @Test
     void findByItemOwnerIdAndStartAfterTest() {
-        List<Booking> bookings = repository.findByItemOwnerIdAndStartAfter(1L, start.minusDays(1), pageRequest);
+        List<Booking> bookings = repository.findByItemOwnerIdAndStartAfter(1L, start.minusDays(1), pageRequest)
+                .getContent();
 
         assertEquals(1, bookings.size());
     }
@@ -113,30 +123,165 @@ public class BookingRepositoryTest {
     @Test
     void findByItemOwnerIdAndStartBeforeAndEndAfterTest() {
         List<Booking> bookings = repository.findByItemOwnerIdAndStartBeforeAndEndAfter(1L, start.plusHours(1),
-                end.minusHours(1), pageRequest);
+                end.minusHours(1), pageRequest).getContent();
 
         assertEquals(1, bookings.size());
     }
 
     @Test
-    void findByItemIdTest() {
-        List<Booking> bookings = repository.findByItemId(1L);
+    void findLastAndNextByItemIdInThenReturnOnlyClosestApprovedBookingsTest() {
+        User owner = userRepository.findById(1L).orElseThrow();
+        User user = userRepository.findById(2L).orElseThrow();
+        Item item = itemRepository.findById(1L).orElseThrow();
+        Item otherItem = itemRepository.save(new Item(null, "other", "description", true, owner, null));
+        LocalDateTime now = LocalDateTime.now();
+        Booking older = repository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, user,
+                BookingStatus.APPROVED));
+        Booking last = repository.save(new Booking(null, now.minusDays(1), now.plusHours(5), item, user,
+                BookingStatus.APPROVED));
+        repository.save(new Booking(null, now.minusHours(5), now.minusHours(4), item, user, BookingStatus.REJECTED));
+        Booking next = repository.save(new Booking(null, now.plusDays(2), now.plusDays(3), item, user,
+                BookingStatus.APPROVED));
+        repository.save(new Booking(null, now.plusDays(4), now.plusDays(5), item, user, BookingStatus.APPROVED));
+        Booking otherNext = repository.save(new Booking(null, now.plusDays(1), now.plusDays(2), otherItem, user,
+                BookingStatus.APPROVED));
+
+        List<Booking> bookings = repository.findLastAndNextByItemIdIn(List.of(item.getId(), otherItem.getId()),
+                BookingStatus.APPROVED, now);
+
+        assertEquals(3, bookings.size());
+        assertTrue(bookings.containsAll(List.of(last, next, otherNext)));
+        assertFalse(bookings.contains(older));
+    }
+
+    @Test
+    void summarizeByItemOwnerIdThenCountsEveryStatePerItemTest() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        User owner = userRepository.findById(1L).orElseThrow();
+        User user = userRepository.findById(2L).orElseThrow();
+        Item item = itemRepository.findById(1L).orElseThrow();
+        Item idleItem = itemRepository.save(new Item(null, "idle", "description", true, owner, null));
+        repository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, user, BookingStatus.APPROVED));
+        repository.save(new Booking(null, now.minusHours(1), now.plusHours(1), item, user, BookingStatus.REJECTED));
+
+        List<ItemBookingSummary> summaries = repository.summarizeByItemOwnerId(1L, now.minusDays(10), now);
+
+        assertEquals(2, summaries.size());
+        ItemBookingSummary summary = summaries.get(0);
+        assertEquals(item.getId(), summary.getItemId());
+        assertEquals("item", summary.getItemName());
+        assertEquals(3, summary.getTotal());
+        assertEquals(1, summary.getCurrent());
+        assertEquals(1, summary.getPast());
+        assertEquals(1, summary.getFuture());
+        assertEquals(1, summary.getWaiting());
+        assertEquals(1, summary.getRejected());
+        assertEquals(24 * 60 * 60, summary.getApprovedSeconds());
+        assertEquals(idleItem.getId(), summaries.get(1).getItemId());
+        assertEquals(0, summaries.get(1).getTotal());
+        assertEquals(0, summaries.get(1).getApprovedSeconds());
+    }
+
+    @Test
+    void findByBookerIdAndItemIdAndEndBeforeTest() {
+        List<Booking> bookings = repository.findAllByBookerIdAndEndBefore(2L, end.plusHours(1), pageRequest)
+                .getContent();
 
         assertEquals(1, bookings.size());
     }
 
     @Test
-    void findByItemIdInTest() {
-        List<Long> itemIds = List.of(1L);
-        List<Booking> bookings = repository.findByItemIdIn(itemIds);
+    void existsByBookerIdAndItemIdAndStatusAndEndBeforeTest() {
+        assertFalse(repository.existsByBookerIdAndItemIdAndStatusAndEndBefore(2L, 1L, BookingStatus.APPROVED,
+                end.plusHours(1)));
+
+        Booking booking = repository.findById(1L).orElseThrow();
+        booking.setStatus(BookingStatus.APPROVED);
+        repository.save(booking);
+
+        assertTrue(repository.existsByBookerIdAndItemIdAndStatusAndEndBefore(2L, 1L, BookingStatus.APPROVED,
+                end.plusHours(1)));
+        assertFalse(repository.existsByBookerIdAndItemIdAndStatusAndEndBefore(2L, 1L, BookingStatus.APPROVED,
+                end.minusHours(1)));
+        assertFalse(repository.existsByBookerIdAndItemIdAndStatusAndEndBefore(1L, 1L, BookingStatus.APPROVED,
+                end.plusHours(1)));
+    }
+
+    @Test
+    void findAllByBookerIdThenSliceReportsWhetherNextPageExistsTest() {
+        Booking booking = repository.findById(1L).orElseThrow();
+        repository.save(new Booking(null, start.plusDays(1), end.plusDays(1), booking.getItem(), booking.getBooker(),
+                BookingStatus.WAITING));
+
+        Slice<Booking> first = repository.findAllByBookerId(2L, PageRequest.of(0, 1));
+        Slice<Booking> second = repository.findAllByBookerId(2L, PageRequest.of(1, 1));
+
+        assertEquals(1, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals(1, second.getNumberOfElements());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void findByBookerIdBeforeCursorTest() {
+        List<Booking> bookings = repository.findByBookerIdBeforeCursor(2L, start.plusHours(1), 1L, pageRequest)
+                .getContent();
 
         assertEquals(1, bookings.size());
     }
 
     @Test
-    void findByBookerIdAndItemIdAndEndBeforeTest() {
-        List<Booking> bookings = repository.findAllByBookerIdAndEndBefore(2L, end.plusHours(1), pageRequest);
+    void findByBookerIdBeforeCursorWhenSameStartThenComparesIdTest() {
+        LocalDateTime sameStart = start.minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking booking = repository.findById(1L).orElseThrow();
+        Booking sameStartBooking = repository.save(new Booking(null, sameStart, end, booking.getItem(),
+                booking.getBooker(), BookingStatus.WAITING));
+
+        assertEquals(0, repository.findByBookerIdBeforeCursor(2L, sameStart, sameStartBooking.getId(),
+                pageRequest).getNumberOfElements());
+        assertEquals(1, repository.findByBookerIdBeforeCursor(2L, sameStart, sameStartBooking.getId() + 1,
+                pageRequest).getNumberOfElements());
+    }
+
+    @Test
+    void findFutureByItemOwnerIdBeforeCursorTest() {
+        List<Booking> bookings = repository.findFutureByItemOwnerIdBeforeCursor(1L, start.minusDays(1),
+                start.plusHours(1), 1L, pageRequest).getContent();
+
+        assertEquals(1, bookings.size());
+    }
+
+    @Test
+    void findCurrentByItemOwnerIdBeforeCursorTest() {
+        List<Booking> bookings = repository.findCurrentByItemOwnerIdBeforeCursor(1L, start.plusHours(1),
+                end, 1L, pageRequest).getContent();
 
         assertEquals(1, bookings.size());
     }
+
+    @Test
+    void updateStatusIfWaitingWhenOwnerThenUpdatesSingleRow() {
+        int updated = repository.updateStatusIfWaiting(1L, 1L, BookingStatus.APPROVED);
+
+        assertEquals(1, updated);
+        assertEquals(BookingStatus.APPROVED, repository.findById(1L).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateStatusIfWaitingWhenNotOwnerThenUpdatesNothing() {
+        int updated = repository.updateStatusIfWaiting(1L, 2L, BookingStatus.APPROVED);
+
+        assertEquals(0, updated);
+        assertEquals(BookingStatus.WAITING, repository.findById(1L).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateStatusIfWaitingWhenAlreadyDecidedThenUpdatesNothing() {
+        repository.updateStatusIfWaiting(1L, 1L, BookingStatus.REJECTED);
+
+        int updated = repository.updateStatusIfWaiting(1L, 1L, BookingStatus.APPROVED);
+
+        assertEquals(0, updated);
+        assertEquals(BookingStatus.REJECTED, repository.findById(1L).orElseThrow().getStatus());
+    }
 }
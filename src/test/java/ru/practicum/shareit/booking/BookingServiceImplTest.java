@@ -8,9 +8,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -20,11 +25,17 @@ import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +48,10 @@ public class BookingServiceImplTest {
     private UserService userService;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+    @Mock
+    private BookingEventLog eventLog;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -55,28 +70,40 @@ public class BookingServiceImplTest {
         item = new Item(1L, "item", "description", true, owner, null);
         bookingDto = new BookingRequest(1L, 1L, now.plusHours(1), now.plusDays(1), BookingStatus.WAITING);
         booking = new Booking(1L, now.plusHours(1), now.plusDays(1), item, user, BookingStatus.WAITING);
-        itemDto = new ItemDto(1L, "item", "description", true, null);
+        itemDto = new ItemDto(1L, "item", "description", true, null, null);
     }
 
     @Test
     public void createSuccessful() {
         long userId = 2;
         long itemId = 1;
-        UserDto userDto = UserMapper.toUserDto(user);
-        when(userService.findUserById(userId)).thenReturn(userDto);
+        when(userService.getUser(userId)).thenReturn(user);
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
         when(repository.save(booking)).thenReturn(booking);
+        when(availabilityIndex.tryAdd(itemId, booking.getId(), booking.getStart(), booking.getEnd())).thenReturn(true);
 
         BookingResponse result = bookingService.create(bookingDto, userId);
 
         verify(repository).save(booking);
+        verify(eventLog).publish(booking.getId(), BookingEventType.CREATED, userId);
+    }
 
+    @Test
+    public void createFailWhenItemIsAlreadyBooked() {
+        long userId = 2;
+        long itemId = 1;
+        when(userService.getUser(userId)).thenReturn(user);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(repository.save(booking)).thenReturn(booking);
+        when(availabilityIndex.tryAdd(itemId, booking.getId(), booking.getStart(), booking.getEnd())).thenReturn(false);
+
+        assertThrows(BookingValidationException.class, () -> bookingService.create(bookingDto, userId));
     }
 
     @Test
     public void createFailBookerNotFound() {
         long userId = 2;
-        when(userService.findUserById(userId)).thenThrow(new BusinessObjectNotFoundException(""));
+        when(userService.getUser(userId)).thenThrow(new BusinessObjectNotFoundException(""));
 
         assertThrows(BusinessObjectNotFoundException.class, () -> bookingService.create(bookingDto, userId));
     }
@@ -85,25 +112,95 @@ public class BookingServiceImplTest {
     public void createFailItemNotFound() {
         long itemId = 1;
         long userId = 2;
-        UserDto userDto = UserMapper.toUserDto(user);
-        when(userService.findUserById(userId)).thenReturn(userDto);
+        when(userService.getUser(userId)).thenReturn(user);
         when(itemRepository.findById(itemId)).thenThrow(new BusinessObjectNotFoundException(""));
 
         assertThrows(BusinessObjectNotFoundException.class, () -> bookingService.create(bookingDto, userId));
     }
 
+    @Test
+    public void createAllReturnsResultForEveryEntry() {
+        long userId = 2;
+        LocalDateTime now = LocalDateTime.now();
+        Item ownItem = new Item(2L, "own", "description", true, user, null);
+        BookingRequest ownItemRequest = new BookingRequest(null, 2L, now.plusHours(1), now.plusDays(1), null);
+        BookingRequest missingItemRequest = new BookingRequest(null, 3L, now.plusHours(1), now.plusDays(1), null);
+        when(userService.getUser(userId)).thenReturn(user);
+        when(itemRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(item, ownItem));
+        when(availabilityIndex.overlaps(item.getId(), booking.getStart(), booking.getEnd())).thenReturn(false);
+        when(repository.save(booking)).thenReturn(booking);
+        when(availabilityIndex.tryAdd(item.getId(), booking.getId(), booking.getStart(), booking.getEnd())).thenReturn(true);
+
+        List<BookingBatchResult> results = bookingService.createAll(
+                List.of(bookingDto, ownItemRequest, missingItemRequest), userId);
+
+        assertEquals(3, results.size());
+        assertEquals(booking.getId(), results.get(0).getBooking().getId());
+        assertNull(results.get(0).getError());
+        assertEquals("Owner of an item cannot rent it", results.get(1).getError());
+        assertEquals("Item was not found", results.get(2).getError());
+        verify(repository).save(booking);
+        verify(eventLog).publish(booking.getId(), BookingEventType.CREATED, userId);
+    }
+
+    @Test
+    public void createAllWhenPeriodIsTakenConcurrentlyThenEntryIsRemoved() {
+        long userId = 2;
+        when(userService.getUser(userId)).thenReturn(user);
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(availabilityIndex.overlaps(item.getId(), booking.getStart(), booking.getEnd())).thenReturn(false);
+        when(repository.save(booking)).thenReturn(booking);
+        when(availabilityIndex.tryAdd(item.getId(), booking.getId(), booking.getStart(), booking.getEnd())).thenReturn(false);
+
+        List<BookingBatchResult> results = bookingService.createAll(List.of(bookingDto), userId);
+
+        assertEquals("Item is already booked for the requested period", results.get(0).getError());
+        verify(repository).delete(booking);
+        verify(eventLog, never()).publish(booking.getId(), BookingEventType.CREATED, userId);
+    }
+
+    @Test
+    public void createAllWhenPeriodOverlapsThenNothingIsSaved() {
+        long userId = 2;
+        when(userService.getUser(userId)).thenReturn(user);
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(availabilityIndex.overlaps(item.getId(), bookingDto.getStart(), bookingDto.getEnd())).thenReturn(true);
+
+        List<BookingBatchResult> results = bookingService.createAll(List.of(bookingDto), userId);
+
+        assertEquals("Item is already booked for the requested period", results.get(0).getError());
+        verify(repository, never()).save(booking);
+    }
+
     @Test
     public void setBookingApprovalSuccessful() {
         long bookingId = 1;
         long userId = 1;
         UserDto userDto = UserMapper.toUserDto(owner);
         when(userService.findUserById(userId)).thenReturn(userDto);
-        when(repository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(repository.save(booking)).thenReturn(booking);
+        when(repository.updateStatusIfWaiting(bookingId, userId, BookingStatus.APPROVED)).thenReturn(1);
+        when(repository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
 
         bookingService.setBookingApproval(userId, true, bookingId);
 
-        verify(repository).save(booking);
+        verify(repository, never()).save(any());
+        verify(availabilityIndex).add(item.getId(), booking.getId(), booking.getStart(), booking.getEnd());
+        verify(eventLog).publish(bookingId, BookingEventType.APPROVED, userId);
+    }
+
+    @Test
+    public void setBookingRejectionReleasesInterval() {
+        long bookingId = 1;
+        long userId = 1;
+        UserDto userDto = UserMapper.toUserDto(owner);
+        when(userService.findUserById(userId)).thenReturn(userDto);
+        when(repository.updateStatusIfWaiting(bookingId, userId, BookingStatus.REJECTED)).thenReturn(1);
+        when(repository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
+
+        bookingService.setBookingApproval(userId, false, bookingId);
+
+        verify(availabilityIndex).remove(item.getId(), booking.getId());
+        verify(eventLog).publish(bookingId, BookingEventType.REJECTED, userId);
     }
 
     @Test
@@ -112,7 +209,8 @@ public class BookingServiceImplTest {
         long userId = 1;
         UserDto userDto = UserMapper.toUserDto(owner);
         when(userService.findUserById(userId)).thenReturn(userDto);
-        when(repository.findById(bookingId)).thenThrow(new BusinessObjectNotFoundException(""));
+        when(repository.updateStatusIfWaiting(bookingId, userId, BookingStatus.APPROVED)).thenReturn(0);
+        when(repository.findWithItemAndBookerById(bookingId)).thenThrow(new BusinessObjectNotFoundException(""));
 
         assertThrows(BusinessObjectNotFoundException.class, () -> bookingService.setBookingApproval(userId, true, bookingId));
 
@@ -126,7 +224,8 @@ public class BookingServiceImplTest {
         long userId = 3;
 
         when(userService.findUserById(userId)).thenReturn(userDto);
-        when(repository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(repository.updateStatusIfWaiting(bookingId, userId, BookingStatus.APPROVED)).thenReturn(0);
+        when(repository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
 
         assertThrows(BookingValidationException.class, () -> bookingService.setBookingApproval(userId, true, bookingId));
     }
@@ -138,7 +237,8 @@ public class BookingServiceImplTest {
         UserDto userDto = UserMapper.toUserDto(user);
 
         when(userService.findUserById(userId)).thenReturn(userDto);
-        when(repository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(repository.updateStatusIfWaiting(bookingId, userId, BookingStatus.APPROVED)).thenReturn(0);
+        when(repository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
 
         assertThrows(UserAccessForbiddenException.class, () -> bookingService.setBookingApproval(userId, true, bookingId));
     }
@@ -151,9 +251,12 @@ public class BookingServiceImplTest {
         long userId = 1;
         UserDto userDto = UserMapper.toUserDto(owner);
         when(userService.findUserById(userId)).thenReturn(userDto);
-        when(repository.findById(bookingId)).thenReturn(Optional.of(booking1));
+        when(repository.updateStatusIfWaiting(bookingId, userId, BookingStatus.APPROVED)).thenReturn(0);
+        when(repository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking1));
 
         assertThrows(BookingValidationException.class, () -> bookingService.setBookingApproval(userId, true, bookingId));
+        verify(availabilityIndex, never()).add(any(), any(), any(), any());
+        verify(eventLog, never()).publish(any(), any(), any());
     }
 
     @Test
@@ -162,7 +265,7 @@ public class BookingServiceImplTest {
         long userId = 1;
         UserDto userDto = UserMapper.toUserDto(owner);
         when(userService.findUserById(userId)).thenReturn(userDto);
-        when(repository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(repository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
 
         BookingResponse bookingOutDto = bookingService.findBookingById(bookingId, userId);
 
@@ -176,7 +279,7 @@ public class BookingServiceImplTest {
         long userId = 2;
         UserDto userDto = UserMapper.toUserDto(user);
         when(userService.findUserById(userId)).thenReturn(userDto);
-        when(repository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(repository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
 
         BookingResponse bookingOutDto = bookingService.findBookingById(bookingId, userId);
 
@@ -184,6 +287,34 @@ public class BookingServiceImplTest {
         assertEquals(user.getName(), bookingOutDto.getBooker().getName());
     }
 
+    @Test
+    public void findBookingEventsSuccessfulWhenUserIsBooker() {
+        long bookingId = 1;
+        long userId = 2;
+        UserDto userDto = UserMapper.toUserDto(user);
+        BookingEventDto event = new BookingEventDto(1L, bookingId, BookingEventType.CREATED, userId,
+                LocalDateTime.now());
+        when(userService.findUserById(userId)).thenReturn(userDto);
+        when(repository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
+        when(eventLog.findByBookingId(bookingId)).thenReturn(List.of(event));
+
+        List<BookingEventDto> result = bookingService.findBookingEvents(bookingId, userId);
+
+        assertEquals(List.of(event), result);
+    }
+
+    @Test
+    public void findBookingEventsFailWhenUserIsNotOwnerOrBooker() {
+        long bookingId = 1;
+        long userId = 3;
+        UserDto userDto = UserDto.builder().id(userId).name("other").email("other@mail.ru").build();
+        when(userService.findUserById(userId)).thenReturn(userDto);
+        when(repository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
+
+        assertThrows(UserAccessForbiddenException.class, () -> bookingService.findBookingEvents(bookingId, userId));
+        verify(eventLog, never()).findByBookingId(bookingId);
+    }
+
     @Test
     public void findBookingByIdFailWhenUserNotFound() {
         long bookingId = 1;
@@ -200,7 +331,7 @@ public class BookingServiceImplTest {
         long userId = 2;
         UserDto userDto = UserMapper.toUserDto(user);
         when(userService.findUserById(userId)).thenReturn(userDto);
-        when(repository.findById(bookingId)).thenThrow(new BusinessObjectNotFoundException(""));
+        when(repository.findWithItemAndBookerById(bookingId)).thenThrow(new BusinessObjectNotFoundException(""));
 
         assertThrows(BusinessObjectNotFoundException.class, () -> bookingService.findBookingById(bookingId, userId));
     }
@@ -211,14 +342,14 @@ public class BookingServiceImplTest {
         long userId = 2;
         int from = 0;
         int size = 10;
-        Sort sort = Sort.by("start").descending();
+        Sort sort = Sort.by("start").descending().and(Sort.by("id").descending());
         Pageable pageRequest = PageRequest.of(0, size, sort);
         UserDto userDto = UserMapper.toUserDto(user);
 
         when(userService.findUserById(userId)).thenReturn(userDto);
-        when(repository.findAllByBookerId(userId, pageRequest)).thenReturn(List.of(booking));
+        when(repository.findAllByBookerId(userId, pageRequest)).thenReturn(new SliceImpl<>(List.of(booking)));
 
-        List<BookingResponse> bookings = bookingService.findBookingsOfUser(state, userId, from, size);
+        List<BookingResponse> bookings = bookingService.findBookingsOfUser(state, userId, from, size).getContent();
 
         assertEquals(1, bookings.size());
     }
@@ -256,14 +387,14 @@ public class BookingServiceImplTest {
         long userId = 1;
         int from = 0;
         int size = 10;
-        Sort sort = Sort.by("start").descending();
+        Sort sort = Sort.by("start").descending().and(Sort.by("id").descending());
         Pageable pageRequest = PageRequest.of(0, size, sort);
         UserDto userDto = UserMapper.toUserDto(owner);
 
         when(userService.findUserById(userId)).thenReturn(userDto);
-        when(repository.findByItemOwnerId(userId, pageRequest)).thenReturn(List.of(booking));
+        when(repository.findByItemOwnerId(userId, pageRequest)).thenReturn(new SliceImpl<>(List.of(booking)));
 
-        List<BookingResponse> bookings = bookingService.findBookingsOfOwner(state, userId, from, size);
+        List<BookingResponse> bookings = bookingService.findBookingsOfOwner(state, userId, from, size).getContent();
 
         assertEquals(1, bookings.size());
     }
@@ -293,4 +424,76 @@ public class BookingServiceImplTest {
 
         assertThrows(UnsupportedBookingStateException.class, () -> bookingService.findBookingsOfOwner(state, userId, from, size));
     }
+
+    @Test
+    public void findOwnerSummarySuccessful() {
+        long userId = 1;
+        ItemBookingSummary first = mock(ItemBookingSummary.class);
+        when(first.getItemId()).thenReturn(1L);
+        when(first.getTotal()).thenReturn(3L);
+        when(first.getWaiting()).thenReturn(2L);
+        when(first.getFuture()).thenReturn(3L);
+        when(first.getApprovedSeconds()).thenReturn(Duration.ofDays(3).getSeconds());
+        ItemBookingSummary second = mock(ItemBookingSummary.class);
+        when(second.getItemId()).thenReturn(2L);
+        when(second.getTotal()).thenReturn(1L);
+        when(second.getWaiting()).thenReturn(1L);
+        when(second.getPast()).thenReturn(1L);
+        when(userService.findUserById(userId)).thenReturn(UserMapper.toUserDto(owner));
+        when(repository.summarizeByItemOwnerId(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(first, second));
+
+        BookingSummaryDto summary = bookingService.findOwnerSummary(userId, 30);
+
+        assertEquals(4L, summary.getCounts().get(BookingState.ALL));
+        assertEquals(3L, summary.getCounts().get(BookingState.WAITING));
+        assertEquals(3L, summary.getCounts().get(BookingState.FUTURE));
+        assertEquals(1L, summary.getCounts().get(BookingState.PAST));
+        assertEquals(0L, summary.getCounts().get(BookingState.CURRENT));
+        assertFalse(summary.getCounts().containsKey(BookingState.UNSUPPORTED_STATUS));
+        assertEquals(0.1, summary.getItems().get(0).getUtilization(), 1e-9);
+        assertEquals(0.0, summary.getItems().get(1).getUtilization());
+    }
+
+    @Test
+    public void findOwnerSummaryFailUserNotFound() {
+        long userId = 1;
+        when(userService.findUserById(userId)).thenThrow(new BusinessObjectNotFoundException(""));
+
+        assertThrows(BusinessObjectNotFoundException.class, () -> bookingService.findOwnerSummary(userId, 30));
+    }
+
+    @Test
+    public void findBookingsOfUserAfterCursorSuccessful() {
+        long userId = 2;
+        int size = 10;
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now().plusDays(2), 5L);
+        UserDto userDto = UserMapper.toUserDto(user);
+
+        when(userService.findUserById(userId)).thenReturn(userDto);
+        when(repository.findByBookerIdAndStatusBeforeCursor(userId, BookingStatus.WAITING, cursor.getStart(),
+                cursor.getId(), PageRequest.of(0, size))).thenReturn(new SliceImpl<>(List.of(booking)));
+
+        List<BookingResponse> bookings = bookingService.findBookingsOfUser(BookingState.WAITING, userId, cursor, size)
+                .getContent();
+
+        assertEquals(1, bookings.size());
+    }
+
+    @Test
+    public void findBookingsOfOwnerAfterCursorSuccessful() {
+        long userId = 1;
+        int size = 10;
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now().plusDays(2), 5L);
+        UserDto userDto = UserMapper.toUserDto(owner);
+
+        when(userService.findUserById(userId)).thenReturn(userDto);
+        when(repository.findByItemOwnerIdBeforeCursor(userId, cursor.getStart(), cursor.getId(), PageRequest.of(0, size)))
+                .thenReturn(new SliceImpl<>(List.of(booking)));
+
+        List<BookingResponse> bookings = bookingService.findBookingsOfOwner(BookingState.ALL, userId, cursor, size)
+                .getContent();
+
+        assertEquals(1, bookings.size());
+    }
 }
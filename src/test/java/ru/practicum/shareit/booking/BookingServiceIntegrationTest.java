@@ -2,22 +2,40 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.ItemUtilizationDto;
+import ru.practicum.shareit.exception.BookingValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @AutoConfigureTestDatabase
@@ -29,6 +47,9 @@ public class BookingServiceIntegrationTest {
     private final BookingService bookingService;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemRequestRepository requestRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BookingEventLog eventLog;
 
     private User owner;
     private User user;
@@ -59,6 +80,61 @@ public class BookingServiceIntegrationTest {
         assertEquals(1L, result.getItem().getId());
     }
 
+    @Test
+    public void createOverlappingBookingTest() {
+        long userId = 2L;
+        userRepository.save(owner);
+        userRepository.save(user);
+        itemRepository.save(item);
+        bookingService.create(bookingDto, userId);
+        BookingRequest overlapping = new BookingRequest(null, 1L, bookingDto.getStart().plusHours(1),
+                bookingDto.getEnd().plusHours(1), null);
+
+        assertThrows(BookingValidationException.class, () -> bookingService.create(overlapping, userId));
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    public void createAllWritesBookingsInBatchesTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        List<Item> items = List.of(itemRepository.save(new Item(null, "item1", "description", true, owner, null)),
+                itemRepository.save(new Item(null, "item2", "description", true, owner, null)));
+        List<BookingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            LocalDateTime start = LocalDateTime.now().plusDays(i + 1);
+            requests.add(new BookingRequest(null, items.get(i % 2).getId(), start, start.plusHours(1), null));
+        }
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<BookingBatchResult> results = bookingService.createAll(requests, user.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertTrue(results.stream().allMatch(result -> result.getError() == null));
+        assertEquals(20, statistics.getEntityInsertCount());
+        // booker, items, one sequence call for the id block and one batched insert
+        assertEquals(4, statements);
+        assertEquals(20, bookingRepository.count());
+    }
+
+    @Test
+    public void createAllRejectsOverlappingEntriesTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        itemRepository.save(item);
+        BookingRequest overlapping = new BookingRequest(null, item.getId(), bookingDto.getStart().plusHours(1),
+                bookingDto.getEnd().plusHours(1), null);
+
+        List<BookingBatchResult> results = bookingService.createAll(List.of(bookingDto, overlapping), user.getId());
+
+        assertNull(results.get(0).getError());
+        assertEquals("Item is already booked for the requested period", results.get(1).getError());
+        assertEquals(1, bookingRepository.count());
+    }
+
     @Test
     public void setBookingApprovalTest() {
         long userId = 1L;
@@ -74,6 +150,102 @@ public class BookingServiceIntegrationTest {
         assertEquals(BookingStatus.APPROVED, bookingOutDto.getStatus());
     }
 
+    @Test
+    public void setBookingApprovalRunsUpdateAndSingleSelectTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        itemRepository.save(item);
+        bookingRepository.save(booking);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        BookingResponse result = bookingService.setBookingApproval(owner.getId(), true, booking.getId());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(BookingStatus.APPROVED, result.getStatus());
+        assertEquals(item.getId(), result.getItem().getId());
+        assertEquals(user.getId(), result.getBooker().getId());
+    }
+
+    @Test
+    public void setBookingApprovalConcurrentlyThenExactlyOneTransitionWinsTest() throws Exception {
+        userRepository.save(owner);
+        userRepository.save(user);
+        itemRepository.save(item);
+        bookingRepository.save(booking);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BookingResponse>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            boolean approved = i % 2 == 0;
+            results.add(executor.submit(() -> {
+                start.await();
+                return bookingService.setBookingApproval(owner.getId(), approved, booking.getId());
+            }));
+        }
+
+        start.countDown();
+        List<BookingStatus> won = new ArrayList<>();
+        for (Future<BookingResponse> result : results) {
+            try {
+                won.add(result.get(10, TimeUnit.SECONDS).getStatus());
+            } catch (ExecutionException e) {
+                assertInstanceOf(BookingValidationException.class, e.getCause());
+            }
+        }
+        executor.shutdown();
+        eventLog.flush();
+
+        assertEquals(1, won.size());
+        assertEquals(won.get(0), bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+        assertEquals(1, eventLog.findByBookingId(booking.getId()).size());
+    }
+
+    @Test
+    public void bookingTransitionsAreWrittenToEventLogTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        itemRepository.save(item);
+        BookingResponse created = bookingService.create(bookingDto, user.getId());
+        bookingService.setBookingApproval(owner.getId(), true, created.getId());
+
+        eventLog.flush();
+        List<BookingEventDto> events = bookingService.findBookingEvents(created.getId(), user.getId());
+
+        assertEquals(List.of(BookingEventType.CREATED, BookingEventType.APPROVED),
+                events.stream().map(BookingEventDto::getType).collect(Collectors.toList()));
+        assertEquals(List.of(user.getId(), owner.getId()),
+                events.stream().map(BookingEventDto::getActorId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void findOwnerSummaryRunsSingleQueryTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        itemRepository.save(item);
+        itemRepository.save(new Item(null, "second", "description", true, owner, null));
+        bookingRepository.save(booking);
+        bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2),
+                item, user, BookingStatus.APPROVED));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        BookingSummaryDto summary = bookingService.findOwnerSummary(owner.getId(), 30);
+
+        assertEquals(2L, summary.getCounts().get(BookingState.ALL));
+        assertEquals(1L, summary.getCounts().get(BookingState.PAST));
+        assertEquals(1L, summary.getCounts().get(BookingState.CURRENT));
+        assertEquals(1L, summary.getCounts().get(BookingState.WAITING));
+        assertEquals(List.of(1L, 2L), summary.getItems().stream().map(ItemUtilizationDto::getItemId)
+                .collect(Collectors.toList()));
+        assertEquals(1.0 / 30, summary.getItems().get(0).getUtilization(), 1e-3);
+        // the owner is already cached, the dashboard itself is one grouped query
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
     @Test
     public void findBookingByIdTest() {
         long userId = 1L;
@@ -97,7 +269,8 @@ public class BookingServiceIntegrationTest {
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        List<BookingResponse> bookings = bookingService.findBookingsOfUser(BookingState.ALL, userId, 0, 10);
+        List<BookingResponse> bookings = bookingService.findBookingsOfUser(BookingState.ALL, userId, 0, 10)
+                .getContent();
 
         assertEquals(1, bookings.size());
         assertEquals(bookingId, bookings.get(0).getId());
@@ -112,9 +285,36 @@ public class BookingServiceIntegrationTest {
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        List<BookingResponse> bookings = bookingService.findBookingsOfOwner(BookingState.ALL, userId, 0, 10);
+        List<BookingResponse> bookings = bookingService.findBookingsOfOwner(BookingState.ALL, userId, 0, 10)
+                .getContent();
 
         assertEquals(1, bookings.size());
         assertEquals(bookingId, bookings.get(0).getId());
     }
+
+    @Test
+    public void findBookingsOfOwnerLoadsPageWithSingleQueryTest() {
+        userRepository.save(owner);
+        for (long i = 2; i <= 4; i++) {
+            User booker = userRepository.save(new User(null, "user" + i, "user" + i + "@mail.ru"));
+            ItemRequest request = requestRepository.save(new ItemRequest(null, "request" + i, booker,
+                    LocalDateTime.now()));
+            Item bookedItem = itemRepository.save(new Item(null, "item" + i, "description", true, owner, request));
+            bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(i),
+                    LocalDateTime.now().plusDays(i + 1), bookedItem, booker, BookingStatus.WAITING));
+        }
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<BookingResponse> bookings = bookingService.findBookingsOfOwner(BookingState.ALL, owner.getId(), 0, 10)
+                .getContent();
+
+        assertEquals(3, bookings.size());
+        assertEquals("item4", bookings.get(0).getItem().getName());
+        assertEquals("user4", bookings.get(0).getBooker().getName());
+        // one statement for the owner lookup and one for the page with its items, requests and bookers
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
 }
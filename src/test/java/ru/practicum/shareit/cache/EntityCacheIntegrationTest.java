@@ -0,0 +1,80 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.exception.BusinessObjectNotFoundException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class EntityCacheIntegrationTest {
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final EntityCacheEndpoint endpoint;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void runOutsideOfRequest() {
+        // keep the request-scoped user cache out of the way, every lookup has to reach Hibernate
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void findUserByIdWhenUserIsCachedThenNoStatementIsExecuted() throws Exception {
+        UserDto user = userService.create(UserDto.builder().name("user").email("user@ru").build());
+        userService.findUserById(user.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        UserDto result = userService.findUserById(user.getId());
+
+        assertEquals(user, result);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        Map<String, EntityCacheEndpoint.RegionStatistics> regions = endpoint.statistics();
+        assertTrue(regions.get(EntityCacheConfig.USERS).getHits() > 0);
+        assertTrue(regions.get(EntityCacheConfig.USERS).getHitRatio() > 0);
+    }
+
+    @Test
+    void updateItemThenCachedItemIsReplaced() throws Exception {
+        UserDto owner = userService.create(UserDto.builder().name("owner").email("owner@ru").build());
+        ItemDto item = itemService.create(ItemDto.builder().name("drill").description("drill")
+                .available(true).build(), owner.getId());
+        itemService.findItemById(item.getId(), owner.getId());
+
+        itemService.update(ItemDto.builder().name("hammer").build(), item.getId(), owner.getId(), null);
+
+        assertEquals("hammer", itemService.findItemById(item.getId(), owner.getId()).getName());
+        assertEquals(3, endpoint.statistics().size());
+    }
+
+    @Test
+    void deleteUserThenCachedUserIsRemoved() {
+        UserDto user = userService.create(UserDto.builder().name("user").email("user@ru").build());
+        userService.findUserById(user.getId());
+
+        userService.delete(user.getId());
+
+        assertThrows(BusinessObjectNotFoundException.class, () -> userService.findUserById(user.getId()));
+    }
+}
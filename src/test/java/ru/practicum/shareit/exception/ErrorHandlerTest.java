@@ -1,8 +1,10 @@
 package ru.practicum.shareit.exception;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.exception.dto.ErrorResponse;
 
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -38,6 +40,21 @@ public class ErrorHandlerTest {
         assertEquals(response, new ErrorResponse("Email conflict has occurred", ""));
     }
 
+    @Test
+    public void handleItemVersionConflictExceptionTest() {
+        ErrorResponse response = errorHandler.handleItemVersionConflictException(new ItemVersionConflictException(""));
+
+        assertEquals(response, new ErrorResponse("Item has been modified", ""));
+    }
+
+    @Test
+    public void handleObjectOptimisticLockingFailureExceptionTest() {
+        ErrorResponse response = errorHandler.handleObjectOptimisticLockingFailureException(
+                new ObjectOptimisticLockingFailureException("", null));
+
+        assertEquals(response, new ErrorResponse("Concurrent modification has occurred", ""));
+    }
+
     @Test
     public void handleBookingValidationExceptionTest() {
         ErrorResponse response = errorHandler.handleBookingValidationException(new BookingValidationException(""));
@@ -73,6 +90,13 @@ public class ErrorHandlerTest {
         assertEquals(response, new ErrorResponse("Search for ItemRequest failed", ""));
     }
 
+    @Test
+    public void handleRejectedExecutionExceptionTest() {
+        ErrorResponse response = errorHandler.handleRejectedExecutionException(new RejectedExecutionException(""));
+
+        assertEquals(response, new ErrorResponse("Server is busy", ""));
+    }
+
     @Test
     public void handleUnknownExceptionTest() {
         ErrorResponse response = errorHandler.handleUnknownException(new Throwable(""));
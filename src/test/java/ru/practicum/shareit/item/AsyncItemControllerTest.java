@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.exception.BusinessObjectNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemViewDto;
+import ru.practicum.shareit.server.ReadQueryExecutor;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AsyncItemController.class)
+@Import({ReadQueryExecutor.class, SimpleMeterRegistry.class})
+public class AsyncItemControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private ItemService itemService;
+    @MockBean
+    private DataSource dataSource;
+    private final ItemViewDto itemViewDto = ItemViewDto.builder()
+            .id(1L)
+            .name("item")
+            .description("description")
+            .available(true)
+            .comments(Collections.emptyList())
+            .version(0L)
+            .build();
+
+    @SneakyThrows
+    @Test
+    void getAllItemsByOwnerWhenPageIsFullThenReturnNextCursorHeader() {
+        when(itemService.getAllItemsByOwner(1L, 0, 1)).thenReturn(List.of(itemViewDto));
+
+        MvcResult started = mockMvc.perform(get("/async/items")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("size", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.NEXT_CURSOR_HEADER, "1"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(List.of(itemViewDto)), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void findItemByIdSuccessful() {
+        when(itemService.findItemById(1L, 2L)).thenReturn(itemViewDto);
+
+        MvcResult started = mockMvc.perform(get("/async/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(itemViewDto), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void findItemByIdWhenItemNotFoundThenStatusNotFound() {
+        when(itemService.findItemById(1L, 2L)).thenThrow(new BusinessObjectNotFoundException("Item was not found"));
+
+        MvcResult started = mockMvc.perform(get("/async/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isNotFound());
+    }
+
+    @SneakyThrows
+    @Test
+    void searchItemByTextSuccessful() {
+        ItemDto itemDto = ItemDto.builder().id(1L).name("item").description("description").available(true).build();
+        when(itemService.searchItemByText("item", 0, 10)).thenReturn(List.of(itemDto));
+
+        MvcResult started = mockMvc.perform(get("/async/items/search")
+                        .param("text", "item"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(List.of(itemDto)), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void searchItemByTextWhenSizeIsNotPositiveThenBadRequestWithoutQuery() {
+        mockMvc.perform(get("/async/items/search")
+                        .param("text", "item")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).searchItemByText(anyString(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CommentEligibilityCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CommentEligibilityCache cache = new CommentEligibilityCache(meterRegistry, 100);
+
+    @Test
+    void isEligibleWhenMarkedThenHit() {
+        assertFalse(cache.isEligible(1L, 2L));
+        cache.markEligible(1L, 2L);
+
+        assertTrue(cache.isEligible(1L, 2L));
+        assertFalse(cache.isEligible(2L, 1L));
+        assertEquals(1, count("hit"));
+        assertEquals(2, count("miss"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("shareit.comments.eligibility.cache").tag("result", result).counter().count();
+    }
+}
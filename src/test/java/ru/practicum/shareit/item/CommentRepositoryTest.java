@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class CommentRepositoryTest {
+
+    @Autowired
+    private CommentRepository repository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    private Item first;
+    private Item second;
+
+    @BeforeEach
+    public void createComments() {
+        User owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        User author = userRepository.save(new User(null, "author", "author@mail.ru"));
+        first = itemRepository.save(new Item(null, "first", "description", true, owner, null));
+        second = itemRepository.save(new Item(null, "second", "description", true, owner, null));
+        for (int i = 0; i < 5; i++) {
+            repository.save(new Comment(null, "first " + i, first, author, LocalDateTime.now()));
+        }
+        repository.save(new Comment(null, "second", second, author, LocalDateTime.now()));
+    }
+
+    @Test
+    void findByItemIdOrderByIdDescThenPagesGoFromNewestWithoutOverlap() {
+        List<Comment> firstPage = repository.findByItemIdOrderByIdDesc(first.getId(), PageRequest.of(0, 2));
+        List<Comment> secondPage = repository.findByItemIdAndIdLessThanOrderByIdDesc(first.getId(),
+                firstPage.get(1).getId(), PageRequest.of(0, 2));
+        List<Comment> lastPage = repository.findByItemIdAndIdLessThanOrderByIdDesc(first.getId(),
+                secondPage.get(1).getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of("first 4", "first 3"), texts(firstPage));
+        assertEquals(List.of("first 2", "first 1"), texts(secondPage));
+        assertEquals(List.of("first 0"), texts(lastPage));
+    }
+
+    @Test
+    void findLatestByItemIdInThenReturnAtMostLimitPerItem() {
+        List<Comment> comments = repository.findLatestByItemIdIn(List.of(first.getId(), second.getId()), 3);
+
+        assertEquals(List.of("first 4", "first 3", "first 2", "second"), texts(comments));
+    }
+
+    private List<String> texts(List<Comment> comments) {
+        return comments.stream().map(Comment::getText).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryItemStorageImplTest {
+
+    private final InMemoryItemStorageImpl storage = new InMemoryItemStorageImpl();
+    private final User owner = new User(1L, "owner", "owner@mail.ru");
+    private final User other = new User(2L, "other", "other@mail.ru");
+
+    @Test
+    void getAllItemsByOwnerReturnsOnlyOwnItemsOrderedById() {
+        Item first = storage.create(new Item(null, "drill", "power drill", true, owner, null));
+        storage.create(new Item(null, "saw", "hand saw", true, other, null));
+        Item second = storage.create(new Item(null, "ladder", "tall ladder", true, owner, null));
+
+        List<Item> result = storage.getAllItemsByOwner(owner.getId());
+
+        assertEquals(List.of(first.getId(), second.getId()),
+                result.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void updateWhenOwnerChangesThenItemMovesBetweenOwners() {
+        Item item = storage.create(new Item(null, "drill", "power drill", true, owner, null));
+
+        storage.update(new Item(item.getId(), "drill", "power drill", true, other, null));
+
+        assertTrue(storage.getAllItemsByOwner(owner.getId()).isEmpty());
+        assertEquals(1, storage.getAllItemsByOwner(other.getId()).size());
+    }
+
+    @Test
+    void deleteThenItemIsRemovedFromOwnerIndex() {
+        Item item = storage.create(new Item(null, "drill", "power drill", true, owner, null));
+
+        storage.delete(item.getId());
+
+        assertTrue(storage.getAllItemsByOwner(owner.getId()).isEmpty());
+    }
+
+    @Test
+    void searchItemByTextReturnsAvailableMatchesIgnoringCase() {
+        Item drill = storage.create(new Item(null, "Drill", "power drill", true, owner, null));
+        storage.create(new Item(null, "Old drill", "broken", false, owner, null));
+        storage.create(new Item(null, "saw", "hand saw", true, owner, null));
+
+        List<Item> result = storage.searchItemByText("DRILL");
+
+        assertEquals(List.of(drill.getId()), result.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void createConcurrentlyThenIdsAreUniqueAndAllItemsAreIndexed() throws InterruptedException {
+        int items = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Item>> tasks = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            User itemOwner = i % 2 == 0 ? owner : other;
+            tasks.add(() -> storage.create(new Item(null, "item", "description", true, itemOwner, null)));
+        }
+
+        executor.invokeAll(tasks);
+        executor.shutdown();
+
+        assertEquals(items / 2, storage.getAllItemsByOwner(owner.getId()).size());
+        assertEquals(items / 2, storage.getAllItemsByOwner(other.getId()).size());
+        assertEquals(items, storage.searchItemByText("item").stream().map(Item::getId).distinct().count());
+    }
+
+    @Test
+    void createAndDeleteConcurrentlyForSameOwnerThenCreatedItemIsAlwaysIndexed() throws InterruptedException {
+        int rounds = 200000;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < rounds; i++) {
+            tasks.add(() -> {
+                Item item = storage.create(new Item(null, "item", "description", true, owner, null));
+                boolean indexed = storage.getAllItemsByOwner(owner.getId()).contains(item);
+                storage.delete(item.getId());
+                return indexed;
+            });
+        }
+
+        long lost = 0;
+        for (Future<Boolean> indexed : executor.invokeAll(tasks)) {
+            if (!getUnchecked(indexed)) {
+                lost++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(0, lost);
+        assertTrue(storage.getAllItemsByOwner(owner.getId()).isEmpty());
+    }
+
+    private static boolean getUnchecked(Future<Boolean> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
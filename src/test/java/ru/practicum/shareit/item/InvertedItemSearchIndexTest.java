@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class InvertedItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository repository;
+    @InjectMocks
+    private InvertedItemSearchIndex searchIndex;
+    private User owner;
+
+    @BeforeEach
+    public void initialize() {
+        owner = new User(1L, "owner", "owner@mail.ru");
+        searchIndex.index(new Item(1L, "Дрель", "Простая дрель", true, owner, null));
+        searchIndex.index(new Item(2L, "Аккумуляторная дрель", "Аккумуляторная дрель + аккумулятор", true, owner,
+                null));
+        searchIndex.index(new Item(3L, "Отвертка", "Аккумуляторная отвертка", true, owner, null));
+        searchIndex.index(new Item(4L, "Клей Момент", "Тюбик суперклея марки Момент", false, owner, null));
+    }
+
+    @Test
+    public void searchThenMatchesInfixIgnoringCase() {
+        List<ItemDto> result = searchIndex.search("аккУМУлятор", 0, 10);
+
+        assertEquals(List.of(2L, 3L), ids(result));
+    }
+
+    @Test
+    public void searchThenRanksNameMatchesFirst() {
+        List<ItemDto> result = searchIndex.search("дрель", 0, 10);
+
+        assertEquals(List.of(1L, 2L), ids(result));
+    }
+
+    @Test
+    public void searchThenSkipsUnavailableItems() {
+        assertTrue(searchIndex.search("клей", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void searchWhenQueryIsShorterThanGramThenScansAllItems() {
+        List<ItemDto> result = searchIndex.search("ел", 0, 10);
+
+        assertEquals(List.of(1L, 2L), ids(result));
+    }
+
+    @Test
+    public void searchThenPagesBySize() {
+        assertEquals(List.of(1L), ids(searchIndex.search("дрель", 0, 1)));
+        assertEquals(List.of(2L), ids(searchIndex.search("дрель", 1, 1)));
+    }
+
+    @Test
+    public void indexThenReplacesPreviousVersion() {
+        searchIndex.index(new Item(1L, "Молоток", "Тяжелый молоток", true, owner, null));
+
+        assertEquals(List.of(2L), ids(searchIndex.search("дрель", 0, 10)));
+        assertEquals(List.of(1L), ids(searchIndex.search("молот", 0, 10)));
+    }
+
+    @Test
+    public void removeThenItemIsNotFound() {
+        searchIndex.remove(2L);
+
+        assertEquals(List.of(3L), ids(searchIndex.search("аккумулятор", 0, 10)));
+    }
+
+    @Test
+    public void rebuildThenLoadsItemsFromRepository() {
+        ItemRequest request = new ItemRequest(7L, "request", owner, LocalDateTime.now());
+        Item item = new Item(5L, "Пила", "Ножовка", true, owner, request);
+        when(repository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1000))).thenReturn(List.of(item));
+
+        searchIndex.rebuild();
+
+        List<ItemDto> result = searchIndex.search("пила", 0, 10);
+        assertEquals(List.of(5L), ids(result));
+        assertEquals(7L, result.get(0).getRequestId());
+        assertEquals(List.of(1L, 2L), ids(searchIndex.search("дрель", 0, 10)));
+    }
+
+    @Test
+    public void rebuildWhenItemIsChangedDuringRebuildThenKeepsLatestVersion() {
+        Item stale = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        stale.setVersion(1L);
+        Item updated = new Item(1L, "Перфоратор", "Перфоратор с дрелью", true, owner, null);
+        updated.setVersion(2L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1000))).thenAnswer(invocation -> {
+            // changes committed after the batch was read
+            searchIndex.index(updated);
+            searchIndex.index(new Item(6L, "Лобзик", "Электролобзик", true, owner, null));
+            return List.of(stale);
+        });
+
+        searchIndex.rebuild();
+
+        assertEquals(List.of(1L), ids(searchIndex.search("перфоратор", 0, 10)));
+        assertEquals(List.of(6L), ids(searchIndex.search("лобзик", 0, 10)));
+        assertEquals(List.of(2L), ids(searchIndex.search("аккумуляторная дрель", 0, 10)));
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
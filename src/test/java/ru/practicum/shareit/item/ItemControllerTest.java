@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemViewDto;
 
@@ -18,6 +19,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -59,6 +61,63 @@ public class ItemControllerTest {
         assertEquals(objectMapper.writeValueAsString(List.of(itemViewDto)), result);
     }
 
+    @SneakyThrows
+    @Test
+    void getAllItemsWithCursorWhenPageIsFullThenReturnNextCursorHeader() {
+        long userId = 1L;
+        List<ItemViewDto> items = List.of(ItemViewDto.builder().id(4L).build(), ItemViewDto.builder().id(6L).build());
+        when(itemService.getAllItemsByOwner(userId, 3L, 2)).thenReturn(items);
+
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("cursor", "3")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.NEXT_CURSOR_HEADER, "6"));
+
+        verify(itemService, never()).getAllItemsByOwner(anyLong(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void findCommentsWhenPageIsFullThenReturnNextCursorHeader() {
+        List<CommentDto> comments = List.of(CommentDto.builder().id(9L).text("new").build(),
+                CommentDto.builder().id(4L).text("old").build());
+        when(itemService.findComments(1L, 12L, 2)).thenReturn(comments);
+
+        String result = mockMvc.perform(get("/items/{itemId}/comments", 1L)
+                        .param("cursor", "12")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.NEXT_CURSOR_HEADER, "4"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(comments), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void findCommentsWithNonPositiveSizeThenStatusIsBadRequest() {
+        mockMvc.perform(get("/items/{itemId}/comments", 1L)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemService);
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllItemsWhenPageIsNotFullThenNoNextCursorHeader() {
+        when(itemService.getAllItemsByOwner(1L, 0, 10)).thenReturn(List.of(ItemViewDto.builder().id(1L).build()));
+
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ItemController.NEXT_CURSOR_HEADER));
+    }
+
     @SneakyThrows
     @Test
     void getAllItemsWhenParamStartLessZeroThenStatusBadRequest() {
@@ -111,12 +170,13 @@ public class ItemControllerTest {
     void findItemByIdSuccessfulThenReturnItemDto() {
         long userId = 1L;
         long itemId = 2L;
-        ItemViewDto itemViewDto = ItemViewDto.builder().build();
+        ItemViewDto itemViewDto = ItemViewDto.builder().version(3L).build();
         when(itemService.findItemById(itemId, userId)).thenReturn(itemViewDto);
 
         String result = mockMvc.perform(get("/items/{itemId}", itemId)
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
@@ -380,7 +440,7 @@ public class ItemControllerTest {
     void updateItemSuccessfulThenReturnStatusIsOk() {
         long userId = 1L;
         long itemId = 2L;
-        when(itemService.update(itemDto, itemId, userId)).thenReturn(itemDto);
+        when(itemService.update(itemDto, itemId, userId, null)).thenReturn(itemDto);
 
         String result = mockMvc.perform(patch("/items/{itemId}", itemId)
                         .header("X-Sharer-User-Id", userId)
@@ -392,5 +452,56 @@ public class ItemControllerTest {
                 .getContentAsString();
 
         assertEquals(objectMapper.writeValueAsString(itemDto), result);
+        verify(itemService, times(1)).update(itemDto, itemId, userId, null);
+    }
+
+    @SneakyThrows
+    @Test
+    void updateItemWithIfMatchThenPassVersionAndReturnNewETag() {
+        long userId = 1L;
+        long itemId = 2L;
+        ItemDto updated = ItemDto.builder().id(itemId).name("item").version(5L).build();
+        when(itemService.update(itemDto, itemId, userId, 4L)).thenReturn(updated);
+
+        mockMvc.perform(patch("/items/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("If-Match", "W/\"4\"")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(itemDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""));
+    }
+
+    @SneakyThrows
+    @Test
+    void updateItemWithUnknownIfMatchThenStatusIsPreconditionFailed() {
+        mockMvc.perform(patch("/items/{itemId}", 2L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-Match", "\"abc\"")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(itemDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(itemService);
+    }
+
+    @SneakyThrows
+    @Test
+    void checkItemAvailabilitySuccessfulThenReturnStatusIsOk() {
+        long itemId = 1L;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+        ItemAvailabilityDto availabilityDto = new ItemAvailabilityDto(itemId, from, to, true);
+        when(itemService.checkAvailability(itemId, from, to)).thenReturn(availabilityDto);
+
+        String result = mockMvc.perform(get("/items/{itemId}/availability", itemId)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(availabilityDto), result);
     }
 }
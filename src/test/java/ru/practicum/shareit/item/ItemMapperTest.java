@@ -66,13 +66,14 @@ class ItemMapperTest {
         List<BookingViewDto> bookings = List.of(lastBooking, nextBooking);
         List<CommentDto> comments = List.of(CommentDto.builder().build());
 
-        ItemViewDto itemViewDto = ItemMapper.toItemViewForOwnerDto(item, bookings, comments);
+        ItemViewDto itemViewDto = ItemMapper.toItemViewForOwnerDto(item, bookings, comments, 5);
 
         assertEquals("item", itemViewDto.getName());
         assertNotNull(itemViewDto.getLastBooking());
         assertNotNull(itemViewDto.getNextBooking());
         assertEquals(lastBooking, itemViewDto.getLastBooking());
         assertEquals(1, itemViewDto.getComments().size());
+        assertEquals(5, itemViewDto.getCommentCount());
     }
 
     @Test
@@ -80,7 +81,7 @@ class ItemMapperTest {
         Item item = new Item(1L, "item", "description", true, null, null);
         List<CommentDto> comments = List.of(CommentDto.builder().build());
 
-        ItemViewDto itemViewDto = ItemMapper.toItemViewForBookerDto(item, comments);
+        ItemViewDto itemViewDto = ItemMapper.toItemViewForBookerDto(item, comments, 1);
 
         assertEquals("item", itemViewDto.getName());
         assertEquals(1, itemViewDto.getComments().size());
@@ -8,29 +8,42 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.exception.BookingValidationException;
 import ru.practicum.shareit.exception.BusinessObjectNotFoundException;
+import ru.practicum.shareit.exception.CommentValidationException;
+import ru.practicum.shareit.exception.ItemVersionConflictException;
 import ru.practicum.shareit.exception.NotOwnerForbiddenException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemViewDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
-import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -58,6 +71,18 @@ public class ItemServiceImplTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestService itemRequestService;
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+    @Mock
+    private ItemSearchIndex searchIndex;
+    @Mock
+    private CommentEligibilityCache eligibilityCache;
+    @Mock
+    private ItemCommentCounts commentCounts;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
 
     @BeforeEach
     public void initialize() {
@@ -69,7 +94,7 @@ public class ItemServiceImplTest {
         bookingLast = new Booking(1L, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusDays(1),
                 item, user, BookingStatus.WAITING);
         bookingNext = new Booking();
-        itemDto = new ItemDto(1L, "item", "description", true, request.getId());
+        itemDto = new ItemDto(1L, "item", "description", true, request.getId(), null);
         commentDto = new CommentDto(1L, "comment", item.getId(), user.getId(), user.getName(), LocalDateTime.now());
     }
 
@@ -88,7 +113,7 @@ public class ItemServiceImplTest {
         long ownerId = 1L;
         int from = 0;
         int size = 10;
-        Pageable pageRequest = PageRequest.of(from, size);
+        Pageable pageRequest = PageRequest.of(from / size, size, Sort.by("id"));
         when(userService.findUserById(ownerId)).thenReturn(UserMapper.toUserDto(owner));
         when(itemRepository.findAllByOwnerId(ownerId, pageRequest)).thenReturn(List.of(item));
 
@@ -105,36 +130,78 @@ public class ItemServiceImplTest {
         long ownerId = 1L;
         int from = 0;
         int size = 10;
-        Pageable pageRequest = PageRequest.of(from, size);
+        Pageable pageRequest = PageRequest.of(from / size, size, Sort.by("id"));
         when(userService.findUserById(ownerId)).thenReturn(UserMapper.toUserDto(owner));
         when(itemRepository.findAllByOwnerId(ownerId, pageRequest)).thenReturn(List.of(item));
-        lenient().when(bookingRepository.findByItemIdIn(List.of(item.getId()))).thenReturn(List.of(bookingLast, bookingNext));
-        lenient().when(commentRepository.findByItemIdIn(List.of(item.getId()))).thenReturn(List.of(comment));
+        Booking past = new Booking(2L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1),
+                item, user, BookingStatus.APPROVED);
+        Booking future = new Booking(3L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                item, user, BookingStatus.APPROVED);
+        when(bookingRepository.findLastAndNextByItemIdIn(eq(Set.of(item.getId())), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class))).thenReturn(List.of(past, future));
+        when(commentRepository.findLatestByItemIdIn(Set.of(item.getId()), ItemServiceImpl.INLINE_COMMENTS))
+                .thenReturn(List.of(comment));
 
         List<ItemViewDto> dtos = itemService.getAllItemsByOwner(ownerId, from, size);
 
         verify(itemRepository).findAllByOwnerId(ownerId, pageRequest);
         assertEquals(1, dtos.size());
+        assertEquals(2L, dtos.get(0).getLastBooking().getId());
+        assertEquals(3L, dtos.get(0).getNextBooking().getId());
+        assertEquals(1, dtos.get(0).getComments().size());
+        assertEquals(1, dtos.get(0).getCommentCount());
+        verify(commentCounts).findByItemIdIn(List.of());
+    }
+
+    @Test
+    public void getAllItemsByOwnerAfterCursorThenKeepRepositoryOrder() {
+        long ownerId = 1L;
+        Item second = new Item(5L, "second", "description", true, owner, null);
+        Item third = new Item(7L, "third", "description", true, owner, null);
+        when(userService.findUserById(ownerId)).thenReturn(UserMapper.toUserDto(owner));
+        when(itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, 3L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(second, third));
+
+        List<ItemViewDto> dtos = itemService.getAllItemsByOwner(ownerId, 3L, 2);
+
+        assertEquals(List.of(5L, 7L), List.of(dtos.get(0).getId(), dtos.get(1).getId()));
+        verify(itemRepository, never()).findAllByOwnerId(anyLong(), any());
     }
 
     @Test
     public void createItemWhenUserNotFoundThenThrowUserNotFoundException() {
         long ownerId = 1L;
-        when(userService.findUserById(ownerId)).thenThrow(new BusinessObjectNotFoundException(""));
+        when(itemRepository.existsOwnerAndRequest(ownerId, itemDto.getRequestId())).thenReturn(false);
+        when(userService.getReference(ownerId)).thenThrow(new BusinessObjectNotFoundException(""));
 
         assertThrows(BusinessObjectNotFoundException.class, () -> itemService.create(itemDto, ownerId));
+        verify(itemRepository, never()).save(any());
     }
 
     @Test
     public void createItemThenReturnItemDto() {
-        UserDto userDto = UserMapper.toUserDto(owner);
-        when(userService.findUserById(owner.getId())).thenReturn(userDto);
-        when(itemRequestService.findRequestById(request.getId())).thenReturn(request);
+        when(itemRepository.existsOwnerAndRequest(owner.getId(), request.getId())).thenReturn(true);
+        when(userRepository.getReferenceById(owner.getId())).thenReturn(owner);
+        when(itemRequestRepository.getReferenceById(request.getId())).thenReturn(request);
         when(itemRepository.save(item)).thenReturn(item);
 
         ItemDto dto = itemService.create(ItemMapper.toItemDto(item), owner.getId());
 
         verify(itemRepository).save(item);
+        verify(userService, never()).getReference(any());
+        verify(itemRequestService, never()).getReference(any());
+    }
+
+    @Test
+    public void createItemWithoutRequestThenReferenceCheckedOwner() {
+        Item withoutRequest = new Item(item.getId(), "item", "description", true, owner, null);
+        when(userService.getReference(owner.getId())).thenReturn(owner);
+        when(itemRepository.save(withoutRequest)).thenReturn(withoutRequest);
+
+        itemService.create(ItemMapper.toItemDto(withoutRequest), owner.getId());
+
+        verify(itemRepository).save(withoutRequest);
+        verify(itemRepository, never()).existsOwnerAndRequest(any(), any());
     }
 
     @Test
@@ -143,7 +210,7 @@ public class ItemServiceImplTest {
         long itemId = 1L;
         when(userService.findUserById(ownerId)).thenThrow(new BusinessObjectNotFoundException(""));
 
-        assertThrows(BusinessObjectNotFoundException.class, () -> itemService.update(itemDto, itemId, ownerId));
+        assertThrows(BusinessObjectNotFoundException.class, () -> itemService.update(itemDto, itemId, ownerId, null));
     }
 
     @Test
@@ -153,7 +220,7 @@ public class ItemServiceImplTest {
         when(userService.findUserById(ownerId)).thenReturn(UserMapper.toUserDto(owner));
         when(itemRepository.findById(itemId)).thenThrow(new BusinessObjectNotFoundException(""));
 
-        assertThrows(BusinessObjectNotFoundException.class, () -> itemService.update(itemDto, itemId, ownerId));
+        assertThrows(BusinessObjectNotFoundException.class, () -> itemService.update(itemDto, itemId, ownerId, null));
     }
 
     @Test
@@ -163,7 +230,7 @@ public class ItemServiceImplTest {
         when(userService.findUserById(userId)).thenReturn(UserMapper.toUserDto(user));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
 
-        assertThrows(NotOwnerForbiddenException.class, () -> itemService.update(itemDto, itemId, userId));
+        assertThrows(NotOwnerForbiddenException.class, () -> itemService.update(itemDto, itemId, userId, null));
     }
 
     @Test
@@ -174,12 +241,51 @@ public class ItemServiceImplTest {
         dto.setDescription("update");
         when(userService.findUserById(ownerId)).thenReturn(UserMapper.toUserDto(owner));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(itemRepository.save(item)).thenReturn(item);
 
-        ItemDto result = itemService.update(dto, itemId, ownerId);
+        ItemDto result = itemService.update(dto, itemId, ownerId, null);
 
         assertNotNull(result);
         assertEquals("update", result.getDescription());
+        verify(itemRepository).flush();
+        verify(itemRepository, never()).save(any());
+    }
+
+    @Test
+    public void updateItemWhenVersionDoesNotMatchThenThrowItemVersionConflictException() {
+        long ownerId = 1L;
+        long itemId = 1L;
+        item.setVersion(3L);
+        when(userService.findUserById(ownerId)).thenReturn(UserMapper.toUserDto(owner));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+
+        assertThrows(ItemVersionConflictException.class, () -> itemService.update(itemDto, itemId, ownerId, 2L));
+        assertEquals("item", item.getName());
+        verify(itemRepository, never()).flush();
+    }
+
+    @Test
+    public void updateItemWhenConditionalUpdateLosesRaceThenThrowItemVersionConflictException() {
+        long ownerId = 1L;
+        long itemId = 1L;
+        item.setVersion(2L);
+        when(userService.findUserById(ownerId)).thenReturn(UserMapper.toUserDto(owner));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        doThrow(new ObjectOptimisticLockingFailureException(Item.class, itemId)).when(itemRepository).flush();
+
+        assertThrows(ItemVersionConflictException.class, () -> itemService.update(itemDto, itemId, ownerId, 2L));
+        verify(searchIndex, never()).index(any());
+    }
+
+    @Test
+    public void updateItemWhenUnconditionalUpdateLosesRaceThenThrowOptimisticLockingFailure() {
+        long ownerId = 1L;
+        long itemId = 1L;
+        when(userService.findUserById(ownerId)).thenReturn(UserMapper.toUserDto(owner));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        doThrow(new ObjectOptimisticLockingFailureException(Item.class, itemId)).when(itemRepository).flush();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> itemService.update(itemDto, itemId, ownerId, null));
     }
 
     @Test
@@ -208,13 +314,57 @@ public class ItemServiceImplTest {
         long itemId = 1L;
         when(userService.findUserById(ownerId)).thenReturn(UserMapper.toUserDto(owner));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(commentRepository.findAllByItemId(itemId)).thenReturn(List.of(comment));
-        when(bookingRepository.findByItemId(itemId)).thenReturn(List.of(bookingLast));
+        when(commentRepository.findByItemIdOrderByIdDesc(itemId, PageRequest.of(0, ItemServiceImpl.INLINE_COMMENTS)))
+                .thenReturn(List.of(comment));
+        when(bookingRepository.findLastAndNextByItemIdIn(eq(List.of(itemId)), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class))).thenReturn(List.of(bookingLast));
 
         ItemViewDto itemViewDto = itemService.findItemById(itemId, ownerId);
 
         assertEquals(1, itemViewDto.getId());
         assertFalse(itemViewDto.getComments().isEmpty());
+        assertEquals(bookingLast.getId(), itemViewDto.getNextBooking().getId());
+        assertEquals(1, itemViewDto.getCommentCount());
+        verifyNoInteractions(commentCounts);
+    }
+
+    @Test
+    public void findItemByIdWhenInlineCommentsAreFullThenReadCommentCount() {
+        long userId = 2L;
+        long itemId = 1L;
+        List<Comment> latest = Collections.nCopies(ItemServiceImpl.INLINE_COMMENTS, comment);
+        when(userService.findUserById(userId)).thenReturn(UserMapper.toUserDto(user));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(commentRepository.findByItemIdOrderByIdDesc(itemId, PageRequest.of(0, ItemServiceImpl.INLINE_COMMENTS)))
+                .thenReturn(latest);
+        when(commentCounts.findByItemIdIn(List.of(itemId))).thenReturn(Map.of(itemId, 250L));
+
+        ItemViewDto itemViewDto = itemService.findItemById(itemId, userId);
+
+        assertEquals(ItemServiceImpl.INLINE_COMMENTS, itemViewDto.getComments().size());
+        assertEquals(250L, itemViewDto.getCommentCount());
+    }
+
+    @Test
+    public void findCommentsAfterCursorThenReturnPage() {
+        long itemId = 1L;
+        when(commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(itemId, 5L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(comment));
+
+        List<CommentDto> result = itemService.findComments(itemId, 5L, 2);
+
+        assertEquals(1, result.size());
+        assertEquals(comment.getId(), result.get(0).getId());
+        verify(itemRepository, never()).existsById(any());
+    }
+
+    @Test
+    public void findCommentsWhenItemNotFoundThenThrowBusinessObjectNotFoundException() {
+        long itemId = 1L;
+        when(commentRepository.findByItemIdOrderByIdDesc(itemId, PageRequest.of(0, 2))).thenReturn(List.of());
+        when(itemRepository.existsById(itemId)).thenReturn(false);
+
+        assertThrows(BusinessObjectNotFoundException.class, () -> itemService.findComments(itemId, null, 2));
     }
 
     @Test
@@ -224,6 +374,7 @@ public class ItemServiceImplTest {
         itemService.delete(itemId);
 
         verify(itemRepository).deleteById(itemId);
+        verify(searchIndex).remove(itemId);
     }
 
     @Test
@@ -242,9 +393,7 @@ public class ItemServiceImplTest {
         int from = 0;
         int size = 10;
         String text = "item";
-        Pageable pageRequest = PageRequest.of(from, size);
-        when(itemRepository.findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(text, text, pageRequest))
-                .thenReturn(List.of(item));
+        when(searchIndex.search(text, from, size)).thenReturn(List.of(ItemMapper.toItemDto(item)));
 
         List<ItemDto> result = itemService.searchItemByText(text, from, size);
 
@@ -257,8 +406,7 @@ public class ItemServiceImplTest {
         long ownerId = 1L;
         long itemId = 1L;
 
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userService.findUserById(ownerId)).thenThrow(new BusinessObjectNotFoundException(""));
+        when(userService.getUser(ownerId)).thenThrow(new BusinessObjectNotFoundException(""));
 
         assertThrows(BusinessObjectNotFoundException.class, () -> itemService.addComment(commentDto, itemId, ownerId));
     }
@@ -268,8 +416,71 @@ public class ItemServiceImplTest {
         long ownerId = 1L;
         long itemId = 1L;
 
-        when(itemRepository.findById(itemId)).thenThrow(new BusinessObjectNotFoundException(""));
+        when(userService.getUser(ownerId)).thenReturn(owner);
+        when(itemRepository.existsById(itemId)).thenReturn(false);
 
         assertThrows(BusinessObjectNotFoundException.class, () -> itemService.addComment(commentDto, itemId, ownerId));
     }
+
+    @Test
+    public void addCommentWhenBookedThenReferenceItemWithoutLoadingIt() {
+        when(userService.getUser(user.getId())).thenReturn(user);
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(eq(user.getId()), eq(item.getId()),
+                eq(BookingStatus.APPROVED), any())).thenReturn(true);
+        when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
+        when(commentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CommentDto result = itemService.addComment(commentDto, item.getId(), user.getId());
+
+        assertEquals(item.getId(), result.getItemId());
+        assertEquals(user.getName(), result.getAuthorName());
+        verify(itemRepository, never()).findById(any());
+        verify(eligibilityCache).markEligible(user.getId(), item.getId());
+        verify(commentCounts).increment(item.getId());
+    }
+
+    @Test
+    public void addCommentWhenEligibilityIsCachedThenSkipBookingCheck() {
+        when(userService.getUser(user.getId())).thenReturn(user);
+        when(eligibilityCache.isEligible(user.getId(), item.getId())).thenReturn(true);
+        when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
+        when(commentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CommentDto result = itemService.addComment(commentDto, item.getId(), user.getId());
+
+        assertEquals(item.getId(), result.getItemId());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    public void addCommentWithoutBookingThenThrowCommentValidationException() {
+        when(userService.getUser(user.getId())).thenReturn(user);
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+
+        assertThrows(CommentValidationException.class,
+                () -> itemService.addComment(commentDto, item.getId(), user.getId()));
+        verify(commentRepository, never()).save(any());
+        verify(eligibilityCache, never()).markEligible(any(), any());
+        verify(commentCounts, never()).increment(any());
+    }
+
+    @Test
+    public void checkAvailabilityWhenIntervalIsBookedThenReturnNotAvailable() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(1);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(availabilityIndex.overlaps(item.getId(), from, to)).thenReturn(true);
+
+        ItemAvailabilityDto result = itemService.checkAvailability(item.getId(), from, to);
+
+        assertFalse(result.isAvailable());
+    }
+
+    @Test
+    public void checkAvailabilityWhenEndBeforeStartThenThrowBookingValidationException() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertThrows(BookingValidationException.class,
+                () -> itemService.checkAvailability(item.getId(), from, from.minusHours(1)));
+    }
 }
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.request.RequestContextHolder;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
@@ -19,8 +23,10 @@ import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -35,6 +41,9 @@ class ItemServiceIntegrationTest {
     private final UserRepository userRepository;
     private final ItemRequestRepository requestRepository;
     private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
 
     private User owner;
     private User user;
@@ -78,6 +87,23 @@ class ItemServiceIntegrationTest {
         assertEquals(1, result.get(0).getId());
     }
 
+    @Test
+    void getAllItemsByOwnerThenPagesAreOrderedByIdAndDoNotOverlap() {
+        userRepository.save(owner);
+        for (int i = 0; i < 5; i++) {
+            itemService.create(ItemDto.builder().name("item" + i).description("description").available(true).build(),
+                    owner.getId());
+        }
+
+        List<ItemViewDto> firstPage = itemService.getAllItemsByOwner(owner.getId(), 0, 2);
+        List<ItemViewDto> secondPage = itemService.getAllItemsByOwner(owner.getId(), 2, 2);
+        List<ItemViewDto> afterCursor = itemService.getAllItemsByOwner(owner.getId(), firstPage.get(1).getId(), 3);
+
+        assertEquals(List.of(1L, 2L), firstPage.stream().map(ItemViewDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(3L, 4L), secondPage.stream().map(ItemViewDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(3L, 4L, 5L), afterCursor.stream().map(ItemViewDto::getId).collect(Collectors.toList()));
+    }
+
     @Test
     void createItemSuccessful() {
         userRepository.save(owner);
@@ -104,6 +130,26 @@ class ItemServiceIntegrationTest {
         assertEquals(itemDto.getName(), result.getName());
     }
 
+    @Test
+    void createItemWithUnknownRequestFail() {
+        userRepository.save(owner);
+        ItemDto itemDto = ItemMapper.toItemDto(item);
+        itemDto.setRequestId(42L);
+
+        assertThrows(ItemRequestNotFoundException.class, () -> itemService.create(itemDto, owner.getId()));
+    }
+
+    @Test
+    void createItemWithRequestByUnknownOwnerFail() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        requestRepository.save(request);
+        ItemDto itemDto = ItemMapper.toItemDto(item);
+        itemDto.setRequestId(request.getId());
+
+        assertThrows(BusinessObjectNotFoundException.class, () -> itemService.create(itemDto, 42L));
+    }
+
     @Test
     void updateItemSuccessful() {
         userRepository.save(owner);
@@ -116,12 +162,62 @@ class ItemServiceIntegrationTest {
                 .available(false)
                 .build();
 
-        ItemDto result = itemService.update(itemUpdate, item.getId(), owner.getId());
+        ItemDto result = itemService.update(itemUpdate, item.getId(), owner.getId(), null);
 
         assertEquals("update", result.getName());
         assertEquals(false, result.getAvailable());
     }
 
+    @Test
+    void updateItemBumpsVersionTest() {
+        userRepository.save(owner);
+        ItemDto created = itemService.create(ItemMapper.toItemDto(item), owner.getId());
+
+        ItemDto first = itemService.update(ItemDto.builder().name("first").build(), created.getId(), owner.getId(),
+                created.getVersion());
+        ItemDto second = itemService.update(ItemDto.builder().name("second").build(), created.getId(),
+                owner.getId(), first.getVersion());
+
+        assertEquals(0L, created.getVersion());
+        assertEquals(1L, first.getVersion());
+        assertEquals(2L, second.getVersion());
+        assertEquals(2L, itemService.findItemById(created.getId(), owner.getId()).getVersion());
+    }
+
+    @Test
+    void updateItemWithStaleVersionFail() {
+        userRepository.save(owner);
+        ItemDto created = itemService.create(ItemMapper.toItemDto(item), owner.getId());
+        itemService.update(ItemDto.builder().name("first").build(), created.getId(), owner.getId(),
+                created.getVersion());
+        ItemDto stale = ItemDto.builder().name("second").build();
+
+        assertThrows(ItemVersionConflictException.class,
+                () -> itemService.update(stale, created.getId(), owner.getId(), created.getVersion()));
+        assertEquals("first", itemRepository.findById(created.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void updateItemWritesOnlyChangedColumnsTest() {
+        userRepository.save(owner);
+        ItemDto created = itemService.create(ItemMapper.toItemDto(item), owner.getId());
+        itemService.findItemById(created.getId(), owner.getId());
+        jdbcTemplate.update("UPDATE items SET description = 'changed elsewhere' WHERE id = ?", created.getId());
+        RequestContextHolder.resetRequestAttributes();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        itemService.update(ItemDto.builder().name("update").build(), created.getId(), owner.getId(), null);
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals("changed elsewhere", jdbcTemplate.queryForObject(
+                "SELECT description FROM items WHERE id = ?", String.class, created.getId()));
+        assertEquals("update", jdbcTemplate.queryForObject(
+                "SELECT name FROM items WHERE id = ?", String.class, created.getId()));
+    }
+
     @Test
     void updateItemWithUserNotTheOwnerFail() {
         userRepository.save(owner);
@@ -135,7 +231,7 @@ class ItemServiceIntegrationTest {
                 .available(false)
                 .build();
 
-        assertThrows(NotOwnerForbiddenException.class, () -> itemService.update(itemUpdate, item.getId(), user.getId()));
+        assertThrows(NotOwnerForbiddenException.class, () -> itemService.update(itemUpdate, item.getId(), user.getId(), null));
     }
 
     @Test
@@ -146,7 +242,7 @@ class ItemServiceIntegrationTest {
 
         ItemDto itemUpdate = ItemDto.builder().build();
 
-        assertThrows(ItemValidationException.class, () -> itemService.update(itemUpdate, item.getId(), owner.getId()));
+        assertThrows(ItemValidationException.class, () -> itemService.update(itemUpdate, item.getId(), owner.getId(), null));
     }
 
     @Test
@@ -175,7 +271,7 @@ class ItemServiceIntegrationTest {
                 .available(false)
                 .build();
 
-        assertThrows(BusinessObjectNotFoundException.class, () -> itemService.update(itemUpdate, item.getId(), user.getId()));
+        assertThrows(BusinessObjectNotFoundException.class, () -> itemService.update(itemUpdate, item.getId(), user.getId(), null));
     }
 
     @Test
@@ -190,7 +286,7 @@ class ItemServiceIntegrationTest {
                 .build();
 
 
-        assertThrows(BusinessObjectNotFoundException.class, () -> itemService.update(itemUpdate, item.getId(), owner.getId()));
+        assertThrows(BusinessObjectNotFoundException.class, () -> itemService.update(itemUpdate, item.getId(), owner.getId(), null));
     }
 
     @Test
@@ -220,8 +316,7 @@ class ItemServiceIntegrationTest {
     @Test
     void searchItemByTextSuccessful() {
         userRepository.save(owner);
-        item.setOwner(owner);
-        itemRepository.save(item);
+        itemService.create(ItemMapper.toItemDto(item), owner.getId());
 
         List<ItemDto> result = itemService.searchItemByText("item", 0, 10);
 
@@ -244,6 +339,103 @@ class ItemServiceIntegrationTest {
         assertEquals(1L, result.getId());
     }
 
+    @Test
+    void createItemRunsExistsChecksAndInsertOnlyTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        requestRepository.save(request);
+        itemService.create(ItemDto.builder().name("first").description("description").available(true).build(),
+                owner.getId());
+        entityManagerFactory.getCache().evictAll();
+        RequestContextHolder.resetRequestAttributes();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        ItemDto result = itemService.create(ItemDto.builder().name("second").description("description")
+                .available(true).requestId(request.getId()).build(), owner.getId());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(request.getId(), result.getRequestId());
+    }
+
+    @Test
+    void addCommentDoesNotLoadItemTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        bookingRepository.save(booking);
+        commentRepository.save(comment);
+        entityManagerFactory.getCache().evictAll();
+        RequestContextHolder.resetRequestAttributes();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        CommentDto result = itemService.addComment(CommentMapper.toCommentDto(comment), item.getId(), user.getId());
+
+        // author select, booking exists and comment insert; the comment counter is updated through plain JDBC
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(Item.class.getName()).getLoadCount());
+        assertEquals(item.getId(), result.getItemId());
+        assertEquals(user.getName(), result.getAuthorName());
+    }
+
+    @Test
+    void addCommentAgainSkipsBookingCheckTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        bookingRepository.save(booking);
+        itemService.addComment(CommentMapper.toCommentDto(comment), item.getId(), user.getId());
+        RequestContextHolder.resetRequestAttributes();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        itemService.addComment(CommentMapper.toCommentDto(comment), item.getId(), user.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    void itemViewsCarryLatestCommentsAndCommentCountTest() {
+        userRepository.save(owner);
+        userRepository.save(user);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        bookingRepository.save(booking);
+        int total = ItemServiceImpl.INLINE_COMMENTS + 2;
+        for (int i = 0; i < total; i++) {
+            itemService.addComment(CommentDto.builder().text("comment " + i).build(), item.getId(), user.getId());
+        }
+
+        ItemViewDto view = itemService.findItemById(item.getId(), user.getId());
+        List<ItemViewDto> ownerViews = itemService.getAllItemsByOwner(owner.getId(), 0, 10);
+        List<CommentDto> rest = itemService.findComments(item.getId(),
+                view.getComments().get(view.getComments().size() - 1).getId(), 10);
+
+        assertEquals(ItemServiceImpl.INLINE_COMMENTS, view.getComments().size());
+        assertEquals("comment " + (total - 1), view.getComments().get(0).getText());
+        assertEquals(total, view.getCommentCount());
+        assertEquals(ItemServiceImpl.INLINE_COMMENTS, ownerViews.get(0).getComments().size());
+        assertEquals(total, ownerViews.get(0).getCommentCount());
+        assertEquals(List.of("comment 1", "comment 0"),
+                rest.stream().map(CommentDto::getText).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findCommentsWithItemNotFoundFail() {
+        assertThrows(BusinessObjectNotFoundException.class, () -> itemService.findComments(1L, null, 10));
+    }
+
     @Test
     void addCommentWithItemNotFoundFail() {
         userRepository.save(owner);
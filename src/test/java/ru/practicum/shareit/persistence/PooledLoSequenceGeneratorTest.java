@@ -0,0 +1,78 @@
+package ru.practicum.shareit.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "shareit.id.allocation-size=10")
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class PooledLoSequenceGeneratorTest {
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void sequenceIncrementFollowsConfiguredAllocationSize() {
+        List<Long> increments = jdbcTemplate.queryForList("SELECT increment FROM information_schema.sequences "
+                + "WHERE sequence_name IN ('USERS_SEQ', 'REQUESTS_SEQ', 'ITEMS_SEQ', 'BOOKINGS_SEQ', 'COMMENTS_SEQ')",
+                Long.class);
+
+        assertEquals(List.of(10L, 10L, 10L, 10L, 10L), increments);
+    }
+
+    @Test
+    void rowsInsertedOutsideHibernateDoNotCollideWithAllocatedIds() {
+        Set<Long> ids = new HashSet<>();
+        ids.add(userRepository.save(new User(null, "user0", "user0@mail.ru")).getId());
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('jdbc', 'jdbc@mail.ru')");
+        for (int i = 1; i <= 12; i++) {
+            ids.add(userRepository.save(new User(null, "user" + i, "user" + i + "@mail.ru")).getId());
+        }
+        ids.add(jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'jdbc@mail.ru'", Long.class));
+
+        assertEquals(14, ids.size());
+        assertEquals(14, userRepository.count());
+    }
+
+    @Test
+    void saveAllReservesIdsWithOneSequenceCallPerBlock() {
+        User owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            items.add(new Item(null, "item" + i, "description", true, owner, null));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(items));
+
+        assertEquals(25, statistics.getEntityInsertCount());
+        // three sequence calls for blocks of ten ids and one batched insert
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+}
@@ -13,6 +13,7 @@ import ru.practicum.shareit.exception.BusinessObjectNotFoundException;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestInDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestViewDto;
@@ -26,7 +27,10 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -63,11 +67,23 @@ public class ItemRequestServiceImplTest {
         ItemRequestInDto requestInDto = new ItemRequestInDto("request");
         ItemRequest request = ItemRequestMapper.toItemRequest(requestInDto);
         request.setCreated(created);
-        when(userService.findUserById(userId)).thenThrow(new BusinessObjectNotFoundException(""));
+        when(userService.getReference(userId)).thenThrow(new BusinessObjectNotFoundException(""));
 
         assertThrows(BusinessObjectNotFoundException.class, () -> itemRequestService.create(requestInDto, userId));
     }
 
+    @Test
+    public void createWithRequesterReferenceSuccessful() {
+        long userId = 2;
+        when(userService.getReference(userId)).thenReturn(requester);
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItemRequestDto result = itemRequestService.create(new ItemRequestInDto("request"), userId);
+
+        assertEquals("request", result.getDescription());
+        verify(userService, never()).findUserById(any());
+    }
+
     @Test
     public void getUserRequestsWithAnswersSuccessfulTest() {
         long userId = 2;
@@ -1,12 +1,15 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.request.RequestContextHolder;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -15,6 +18,7 @@ import ru.practicum.shareit.request.dto.ItemRequestViewDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -30,6 +34,7 @@ public class ItemRequestServiceIntegrationTest {
     private final ItemRequestService itemRequestService;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
     private User owner;
     private User requester;
     private Item item;
@@ -55,6 +60,23 @@ public class ItemRequestServiceIntegrationTest {
         assertEquals("request", outDto.getDescription());
     }
 
+    @Test
+    public void createItemRequestRunsExistsCheckAndInsertOnlyTest() {
+        userRepository.save(requester);
+        itemRequestService.create(new ItemRequestInDto("first"), requester.getId());
+        entityManagerFactory.getCache().evictAll();
+        RequestContextHolder.resetRequestAttributes();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        itemRequestService.create(new ItemRequestInDto("second"), requester.getId());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
     @Test
     public void getUserRequestsWithAnswersTest() {
         long requesterId = 1;
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.server;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadQueryExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadQueryExecutor executor = new ReadQueryExecutor(meterRegistry, 1, 1);
+
+    @AfterEach
+    void stop() {
+        executor.stop();
+    }
+
+    @Test
+    void supplyRunsQueryOnReadQueryThread() throws Exception {
+        String threadName = executor.supply(() -> Thread.currentThread().getName()).get(1, TimeUnit.SECONDS);
+
+        assertTrue(threadName.startsWith("read-query-"), threadName);
+    }
+
+    @Test
+    void supplyWhenQueueIsFullThenRejects() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = executor.supply(() -> await(release));
+        CompletableFuture<Boolean> queued = executor.supply(() -> true);
+
+        assertThrows(RejectedExecutionException.class, () -> executor.supply(() -> true));
+        assertEquals(1.0, meterRegistry.get("shareit.read.queries.queue.size").gauge().value());
+
+        release.countDown();
+        assertTrue(running.get(1, TimeUnit.SECONDS));
+        assertTrue(queued.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void constructorWhenThreadsAreNotSetThenSizesPoolToDataSource() throws Exception {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(3);
+        ReadQueryExecutor sized = new ReadQueryExecutor(meterRegistry, dataSource, 0, 10);
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> queries = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                queries.add(sized.supply(() -> {
+                    started.countDown();
+                    return await(release);
+                }));
+            }
+
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+            release.countDown();
+            for (CompletableFuture<Boolean> query : queries) {
+                assertTrue(query.get(1, TimeUnit.SECONDS));
+            }
+        } finally {
+            sized.stop();
+            dataSource.close();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
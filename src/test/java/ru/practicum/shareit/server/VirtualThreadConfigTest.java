@@ -0,0 +1,56 @@
+package ru.practicum.shareit.server;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VirtualThreadConfigTest {
+
+    @Test
+    void newVirtualThreadPerTaskExecutorWhenJavaIsOlderThan21ThenFailsWithUpgradeHint() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                VirtualThreadConfig::newVirtualThreadPerTaskExecutor);
+
+        assertTrue(e.getMessage().contains("Java 21"), e.getMessage());
+    }
+
+    @Test
+    void newVirtualThreadPerTaskExecutorRunsTasksOnVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21);
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor();
+
+        Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                .get(1, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(Boolean.TRUE, virtual);
+    }
+
+    @Test
+    void jdbcPoolSizerWhenBeanIsHikariDataSourceThenAppliesVirtualThreadPoolSize() {
+        BeanPostProcessor sizer = VirtualThreadConfig.virtualThreadJdbcPoolSizer(40);
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(10);
+
+        Object processed = sizer.postProcessAfterInitialization(dataSource, "dataSource");
+
+        assertSame(dataSource, processed);
+        assertEquals(40, dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    void jdbcPoolSizerWhenBeanIsNotHikariDataSourceThenReturnsItUnchanged() {
+        BeanPostProcessor sizer = VirtualThreadConfig.virtualThreadJdbcPoolSizer(40);
+        Object bean = new Object();
+
+        assertSame(bean, sizer.postProcessAfterInitialization(bean, "bean"));
+    }
+}
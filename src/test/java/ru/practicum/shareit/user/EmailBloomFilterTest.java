@@ -0,0 +1,57 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class EmailBloomFilterTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+
+    @Test
+    void mightContainWhenDisabledThenAlwaysTrue() {
+        EmailBloomFilter filter = new EmailBloomFilter(repository, false, 1000, 0.01);
+
+        filter.load();
+
+        assertTrue(filter.mightContain("free@ya.ru"));
+        verify(repository, never()).findEmailsByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    @Test
+    void mightContainWhenNotLoadedThenAlwaysTrue() {
+        EmailBloomFilter filter = new EmailBloomFilter(repository, true, 1000, 0.01);
+
+        assertTrue(filter.mightContain("free@ya.ru"));
+    }
+
+    @Test
+    void mightContainThenNoFalseNegativesAndFewFalsePositives() {
+        EmailBloomFilter filter = new EmailBloomFilter(repository, true, 1000, 0.01);
+        UserEmailView existing = mock(UserEmailView.class);
+        when(existing.getId()).thenReturn(1L);
+        when(existing.getEmail()).thenReturn("user0@ya.ru");
+        when(repository.findEmailsByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10000)))
+                .thenReturn(List.of(existing));
+
+        filter.load();
+        for (int i = 1; i < 1000; i++) {
+            filter.put("user" + i + "@ya.ru");
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@ya.ru"));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other" + i + "@ya.ru")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.EmailConflictException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryUserStorageImplTest {
+
+    private final InMemoryUserStorageImpl storage = new InMemoryUserStorageImpl();
+
+    @Test
+    void createWhenEmailIsTakenThenThrowEmailConflict() {
+        storage.create(new User(null, "user", "user@mail.ru"));
+
+        assertThrows(EmailConflictException.class, () -> storage.create(new User(null, "other", "user@mail.ru")));
+        assertEquals(1, storage.getAllUsers().size());
+    }
+
+    @Test
+    void updateWhenEmailChangesThenOldEmailIsReleased() {
+        User user = storage.create(new User(null, "user", "user@mail.ru"));
+
+        storage.update(user, new User(user.getId(), "user", "new@mail.ru"), user.getId());
+
+        assertTrue(storage.doesEmailNotExist("user@mail.ru"));
+        assertFalse(storage.doesEmailNotExist("new@mail.ru"));
+    }
+
+    @Test
+    void updateWhenEmailIsTakenThenKeepOldEmail() {
+        User user = storage.create(new User(null, "user", "user@mail.ru"));
+        storage.create(new User(null, "other", "other@mail.ru"));
+
+        assertThrows(EmailConflictException.class,
+                () -> storage.update(user, new User(user.getId(), "user", "other@mail.ru"), user.getId()));
+        assertEquals("user@mail.ru", storage.findUserById(user.getId()).getEmail());
+        assertFalse(storage.doesEmailNotExist("user@mail.ru"));
+    }
+
+    @Test
+    void deleteThenEmailIsReleased() {
+        User user = storage.create(new User(null, "user", "user@mail.ru"));
+
+        storage.delete(user.getId());
+
+        assertFalse(storage.doesIdExist(user.getId()));
+        assertTrue(storage.doesEmailNotExist("user@mail.ru"));
+    }
+
+    @Test
+    void createConcurrentlyWithSameEmailThenOnlyOneSucceeds() throws InterruptedException {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<User>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads * 10; i++) {
+            String name = "user" + i;
+            tasks.add(() -> storage.create(new User(null, name, "user@mail.ru")));
+        }
+
+        int created = 0;
+        for (Future<User> future : executor.invokeAll(tasks)) {
+            try {
+                future.get();
+                created++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(EmailConflictException.class, e.getCause());
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, created);
+        assertEquals(1, storage.getAllUsers().size());
+    }
+
+    @Test
+    void updateSameUserConcurrentlyThenOnlyStoredEmailStaysClaimed() throws InterruptedException {
+        User user = storage.create(new User(null, "user", "user@mail.ru"));
+        int threads = 8;
+        int updates = threads * 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<User>> tasks = new ArrayList<>();
+        for (int i = 0; i < updates; i++) {
+            String email = "user" + i + "@mail.ru";
+            tasks.add(() -> storage.update(user, new User(user.getId(), "user", email), user.getId()));
+        }
+
+        executor.invokeAll(tasks);
+        executor.shutdown();
+
+        String storedEmail = storage.findUserById(user.getId()).getEmail();
+        assertTrue(storage.doesEmailNotExist("user@mail.ru"));
+        for (int i = 0; i < updates; i++) {
+            String email = "user" + i + "@mail.ru";
+            assertEquals(!email.equals(storedEmail), storage.doesEmailNotExist(email), email);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestUserCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestUserCache cache = new RequestUserCache(meterRegistry);
+    private final UserDto user = UserDto.builder()
+            .id(1L)
+            .name("user")
+            .email("user@ya.ru")
+            .build();
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void findWhenUserWasPutInSameRequestThenHit() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertTrue(cache.find(1L).isEmpty());
+        cache.put(user);
+
+        assertEquals(Optional.of(user), cache.find(1L));
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void findWhenUserWasPutInOtherRequestThenMiss() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        cache.put(user);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertTrue(cache.find(1L).isEmpty());
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void findWhenUserWasEvictedThenMiss() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        cache.put(user);
+        cache.evict(1L);
+
+        assertTrue(cache.find(1L).isEmpty());
+    }
+
+    @Test
+    void findWhenOutsideOfRequestThenNothingIsCached() {
+        cache.put(user);
+
+        assertTrue(cache.find(1L).isEmpty());
+        assertEquals(0, count("hit"));
+        assertEquals(0, count("miss"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("shareit.users.request.cache", "result", result).count();
+    }
+}
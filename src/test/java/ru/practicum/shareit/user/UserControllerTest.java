@@ -6,12 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -77,6 +80,34 @@ public class UserControllerTest {
         assertEquals(objectMapper.writeValueAsString(dtos), result);
     }
 
+    @SneakyThrows
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreamAllUsersAsNdjson() {
+        UserDto userDto2 = UserDto.builder()
+                .id(2L)
+                .name("test2")
+                .email("test2@mail.ru")
+                .build();
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(userDto);
+            action.accept(userDto2);
+            return null;
+        }).when(userService).forEachUser(any(Consumer.class));
+
+        String result = mockMvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        verify(userService, never()).getAllUsers();
+        assertEquals(objectMapper.writeValueAsString(userDto) + "\n"
+                + objectMapper.writeValueAsString(userDto2) + "\n", result);
+    }
+
     @SneakyThrows
     @Test
     public void testUpdateUserFailWrongEmail() {
@@ -11,10 +11,15 @@ import ru.practicum.shareit.exception.UserValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -23,6 +28,14 @@ public class UserServiceImplTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private EmailBloomFilter emailFilter;
+    @Mock
+    private RequestUserCache userCache;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache secondLevelCache;
     @InjectMocks
     private UserServiceImpl userService;
     private final User user = new User(1L, "test", "test@ya.ru");
@@ -35,6 +48,54 @@ public class UserServiceImplTest {
         UserDto expectedResult = UserMapper.toUserDto(user);
 
         assertEquals(expectedResult, result);
+        verify(userCache).put(expectedResult);
+    }
+
+    @Test
+    void findUserByIdWhenUserIsCachedThenSkipRepository() {
+        UserDto cached = UserMapper.toUserDto(user);
+        when(userCache.find(1L)).thenReturn(Optional.of(cached));
+
+        UserDto result = userService.findUserById(1L);
+
+        assertEquals(cached, result);
+        verify(userRepository, never()).findById(1L);
+    }
+
+    @Test
+    void getReferenceWhenUserIsInSecondLevelCacheThenSkipExistsQuery() {
+        when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        when(secondLevelCache.contains(User.class, 1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        User result = userService.getReference(1L);
+
+        assertEquals(user, result);
+        verify(userRepository, never()).existsById(any());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void getReferenceWhenUserDoesNotExistThenThrowNotFound() {
+        when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(BusinessObjectNotFoundException.class, () -> userService.getReference(1L));
+        verify(userRepository, never()).getReferenceById(any());
+    }
+
+    @Test
+    void getUserThenReturnManagedUser() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertSame(user, userService.getUser(1L));
+    }
+
+    @Test
+    void getUserWhenUserNotFoundThenThrowNotFound() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(BusinessObjectNotFoundException.class, () -> userService.getUser(1L));
     }
 
     @Test
@@ -78,6 +139,21 @@ public class UserServiceImplTest {
         verify(userRepository).findAll();
     }
 
+    @Test
+    void forEachUserThenPassEveryStreamedUserToAction() {
+        UserView view = mock(UserView.class);
+        when(view.getId()).thenReturn(1L);
+        when(view.getName()).thenReturn("test");
+        when(view.getEmail()).thenReturn("test@ya.ru");
+        when(userRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(view));
+        List<UserDto> result = new ArrayList<>();
+
+        userService.forEachUser(result::add);
+
+        assertEquals(List.of(UserMapper.toUserDto(user)), result);
+        verify(userRepository, never()).findAll();
+    }
+
     @Test
     void shouldUpdateUserSuccessfullyThenReturnUserDto() {
         UserDto userUpdate = UserDto.builder()
@@ -107,4 +183,36 @@ public class UserServiceImplTest {
         assertThrows(EmailConflictException.class, () -> userService.update(userUpdate, 1L));
         verify(userRepository, never()).save(UserMapper.toUser(userUpdate));
     }
+
+    @Test
+    void updateWhenEmailIsTakenThenThrowEmailConflictException() {
+        UserDto userUpdate = UserDto.builder()
+                .email("taken@ya.ru")
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(emailFilter.mightContain("taken@ya.ru")).thenReturn(true);
+        when(userRepository.existsByEmail("taken@ya.ru")).thenReturn(true);
+
+        assertThrows(EmailConflictException.class, () -> userService.update(userUpdate, 1L));
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void updateWhenEmailFilterRulesOutEmailThenSkipDatabaseCheck() {
+        UserDto userUpdate = UserDto.builder()
+                .email("free@ya.ru")
+                .build();
+        User userUpdated = new User(1L, "test", "free@ya.ru");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(emailFilter.mightContain("free@ya.ru")).thenReturn(false);
+        when(userRepository.save(userUpdated)).thenReturn(userUpdated);
+
+        UserDto result = userService.update(userUpdate, 1L);
+
+        assertEquals("free@ya.ru", result.getEmail());
+        verify(userRepository, never()).existsByEmail("free@ya.ru");
+        verify(emailFilter).put("free@ya.ru");
+    }
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -10,7 +12,11 @@ import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.exception.UserValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,6 +28,7 @@ public class UserServiceIntegrationTest {
 
     private final UserService userService;
     private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Test
     void getAllUsersWhenDbIsEmptyThenReturnEmptyList() {
@@ -45,6 +52,20 @@ public class UserServiceIntegrationTest {
         assertEquals(2, result.get(1).getId());
     }
 
+    @Test
+    void forEachUserThenStreamUsersInIdOrder() {
+        userRepository.save(new User(0L, "user1", "one@ru"));
+        userRepository.save(new User(0L, "user2", "two@ru"));
+        List<UserDto> result = new ArrayList<>();
+
+        userService.forEachUser(result::add);
+
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals("user1", result.get(0).getName());
+        assertEquals("two@ru", result.get(1).getEmail());
+    }
+
     @Test
     void createUserWhenUserHasSameEmailThenConflictException() {
         User user = new User(0L, "user", "test@ru");
@@ -128,4 +149,28 @@ public class UserServiceIntegrationTest {
         assertEquals(user.getName(), userDto2.getName());
         assertEquals(user.getEmail(), userDto2.getEmail());
     }
+
+    @Test
+    void updateUserEmailThenWorkDoesNotDependOnUserCount() {
+        userRepository.save(new User(0L, "user", "user@ru"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        userService.update(UserDto.builder().email("first@ru").build(), 1L);
+        long statementsWithOneUser = statistics.getPrepareStatementCount();
+        long entitiesWithOneUser = statistics.getEntityLoadCount();
+
+        userRepository.saveAll(LongStream.rangeClosed(1, 1000)
+                .mapToObj(i -> new User(null, "user" + i, "user" + i + "@ru"))
+                .collect(Collectors.toList()));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        userService.update(UserDto.builder().email("second@ru").build(), 1L);
+
+        assertEquals(statementsWithOneUser, statistics.getPrepareStatementCount());
+        assertEquals(entitiesWithOneUser, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
 }